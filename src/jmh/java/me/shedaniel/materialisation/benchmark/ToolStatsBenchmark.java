@@ -0,0 +1,166 @@
+package me.shedaniel.materialisation.benchmark;
+
+import me.shedaniel.materialisation.Materialisation;
+import me.shedaniel.materialisation.MaterialisationUtils;
+import me.shedaniel.materialisation.api.MaterialStatTable;
+import me.shedaniel.materialisation.api.MaterialisationSnapshot;
+import me.shedaniel.materialisation.api.Modifier;
+import me.shedaniel.materialisation.api.PartMaterial;
+import me.shedaniel.materialisation.api.PartMaterials;
+import me.shedaniel.materialisation.items.MaterialisedMiningTool;
+import me.shedaniel.materialisation.modifiers.DefaultModifiers;
+import me.shedaniel.materialisation.modifiers.Modifiers;
+import me.shedaniel.materialisation.utils.ResettableSimpleRegistry;
+import me.shedaniel.materialisation.utils.ToolStatsSlot;
+import net.minecraft.Bootstrap;
+import net.minecraft.client.item.TooltipContext;
+import net.minecraft.item.ItemStack;
+import net.minecraft.text.Text;
+import org.openjdk.jmh.annotations.*;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the tool stat engine headless, with the default modifiers and generated stub materials.
+ * <p>
+ * Mixins are not applied here, so the stacks get their stats slots through {@link ToolStatsSlot#setHolders} instead
+ * of {@link ItemStack} itself. Everything else is the production path of the public getters.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ToolStatsBenchmark {
+    
+    @Param({"0", "4", "8"})
+    public int modifiers;
+    
+    @Param({"10", "500", "5000"})
+    public int materials;
+    
+    private ItemStack pickaxe;
+    private ItemStack sword;
+    private MaterialisedMiningTool tool;
+    private List<Text> tooltip;
+    private Random random;
+    
+    @Setup(Level.Trial)
+    @SuppressWarnings("deprecation")
+    public void setup() {
+        Bootstrap.initialize();
+        SlotHolder pickaxeHolder = new SlotHolder();
+        SlotHolder swordHolder = new SlotHolder();
+        ToolStatsSlot.setHolders(stack -> stack == sword ? swordHolder : pickaxeHolder);
+        ((ResettableSimpleRegistry<Modifier>) Materialisation.MODIFIERS).reset();
+        new DefaultModifiers().registerModifiers();
+        Modifiers.compileModifiers();
+        PartMaterials.clearMaterials();
+        List<PartMaterial> registered = new ArrayList<>();
+        MaterialisationSnapshot.batch(() -> {
+            for (int i = 0; i < materials; i++) {
+                PartMaterial material = PartMaterials.getNewMaterial("benchmark:material_" + i)
+                        .setToolDurability(100 + i % 1500)
+                        .setDurabilityMultiplier(0.5f + i % 7 * 0.1f)
+                        .setToolSpeed(2f + i % 10)
+                        .setBreakingSpeedMultiplier(0.8f + i % 5 * 0.1f)
+                        .setMiningLevel(i % 5)
+                        .setEnchantability(5 + i % 20)
+                        .setAttackDamage(i % 6)
+                        .setToolColor(0xff000000 | i)
+                        .setFullAmount(100);
+                PartMaterials.registerMaterial(material);
+                registered.add(material);
+            }
+        });
+        MaterialStatTable.build();
+        MaterialisationUtils.invalidateToolStats();
+        PartMaterial handle = registered.get(0);
+        PartMaterial head = registered.get(registered.size() - 1);
+        pickaxe = withModifiers(MaterialisationUtils.createPickaxe(handle, head));
+        sword = withModifiers(MaterialisationUtils.createSword(handle, head));
+        tool = (MaterialisedMiningTool) pickaxe.getItem();
+        tooltip = new ArrayList<>();
+        random = new Random(0);
+    }
+    
+    private ItemStack withModifiers(ItemStack stack) {
+        MaterialisedMiningTool tool = (MaterialisedMiningTool) stack.getItem();
+        int applied = 0;
+        for (Modifier modifier : Materialisation.MODIFIERS) {
+            if (applied++ >= modifiers)
+                break;
+            tool.setModifierLevel(stack, modifier, 1);
+        }
+        return stack;
+    }
+    
+    @Benchmark
+    public float getToolBreakingSpeed() {
+        return MaterialisationUtils.getToolBreakingSpeed(pickaxe);
+    }
+    
+    @Benchmark
+    public int getToolMaxDurability() {
+        return MaterialisationUtils.getToolMaxDurability(pickaxe);
+    }
+    
+    /**
+     * Recomputes the stats from the tag on every call, as after a reload or for a freshly modified tool
+     */
+    @Benchmark
+    public int getToolMaxDurabilityUncached() {
+        MaterialisationUtils.invalidateToolStats();
+        return MaterialisationUtils.getToolMaxDurability(pickaxe);
+    }
+    
+    @Benchmark
+    public float getToolAttackDamage() {
+        return MaterialisationUtils.getToolAttackDamage(sword);
+    }
+    
+    @Benchmark
+    public Map<Modifier, Integer> getToolModifiers() {
+        return MaterialisationUtils.getToolModifiers(pickaxe);
+    }
+    
+    @Benchmark
+    public boolean applyDamage() {
+        if (MaterialisationUtils.getToolDurability(pickaxe) <= 2)
+            MaterialisationUtils.setToolDurability(pickaxe, MaterialisationUtils.getToolMaxDurability(pickaxe));
+        return MaterialisationUtils.applyDamage(pickaxe, 1, random);
+    }
+    
+    @Benchmark
+    public List<Text> appendToolTooltip() {
+        tooltip.clear();
+        MaterialisationUtils.appendToolTooltip(pickaxe, tool, null, tooltip, TooltipContext.Default.NORMAL);
+        return tooltip;
+    }
+    
+    /**
+     * Stands in for the slot field the mixin adds to {@link ItemStack}.
+     */
+    private static final class SlotHolder implements ToolStatsSlot.Holder {
+        @Nullable
+        private ToolStatsSlot slot;
+        
+        @Nullable
+        @Override
+        public ToolStatsSlot materialisation_getToolStatsSlot() {
+            return slot;
+        }
+        
+        @Override
+        public void materialisation_setToolStatsSlot(@Nullable ToolStatsSlot slot) {
+            this.slot = slot;
+        }
+    }
+    
+}
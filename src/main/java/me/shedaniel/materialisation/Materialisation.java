@@ -5,12 +5,16 @@ import me.shedaniel.materialisation.blocks.MaterialPreparerBlock;
 import me.shedaniel.materialisation.blocks.MaterialisingTableBlock;
 import me.shedaniel.materialisation.config.ConfigHelper;
 import me.shedaniel.materialisation.config.MaterialisationConfig;
+import me.shedaniel.materialisation.config.MaterialsWatcher;
 import me.shedaniel.materialisation.containers.MaterialPreparerContainer;
 import me.shedaniel.materialisation.containers.MaterialisingTableContainer;
 import me.shedaniel.materialisation.items.*;
+import me.shedaniel.materialisation.utils.MaterialPalette;
 import me.shedaniel.materialisation.utils.ResettableSimpleRegistry;
 import net.fabricmc.api.ModInitializer;
 import net.fabricmc.fabric.api.container.ContainerProviderRegistry;
+import net.fabricmc.fabric.api.event.server.ServerStartCallback;
+import net.fabricmc.fabric.api.event.server.ServerStopCallback;
 import net.fabricmc.fabric.api.network.ServerSidePacketRegistry;
 import net.minecraft.SharedConstants;
 import net.minecraft.block.Block;
@@ -36,6 +40,7 @@ public class Materialisation implements ModInitializer {
     public static final Identifier MATERIALISING_TABLE_CONTAINER = new Identifier(ModReference.MOD_ID, "materialising_table");
     public static final Identifier MATERIALISING_TABLE_RENAME = new Identifier(ModReference.MOD_ID, "materialising_table_rename");
     public static final Identifier MATERIALISING_TABLE_PLAY_SOUND = new Identifier(ModReference.MOD_ID, "materialising_table_play_sound");
+    public static final Identifier MATERIAL_PALETTE_SYNC = new Identifier(ModReference.MOD_ID, "material_palette_sync");
     public static final Item MATERIALISED_PICKAXE = new MaterialisedPickaxeItem(new Item.Settings());
     public static final Item MATERIALISED_AXE = new MaterialisedAxeItem(new Item.Settings());
     public static final Item MATERIALISED_SHOVEL = new MaterialisedShovelItem(new Item.Settings());
@@ -91,6 +96,8 @@ public class Materialisation implements ModInitializer {
                     container.setNewItemName(string_1);
             }
         });
+        ServerStartCallback.EVENT.register(MaterialPalette::load);
+        ServerStopCallback.EVENT.register(server -> MaterialPalette.unload());
         registerItem("materialised_pickaxe", MATERIALISED_PICKAXE);
         registerItem("materialised_axe", MATERIALISED_AXE);
         registerItem("materialised_shovel", MATERIALISED_SHOVEL);
@@ -118,6 +125,8 @@ public class Materialisation implements ModInitializer {
             e.printStackTrace();
         }
         ConfigHelper.loadConfig();
+        if (MaterialsWatcher.ENABLED)
+            MaterialsWatcher.start();
     }
     
     private void registerBlock(String name, Block block) {
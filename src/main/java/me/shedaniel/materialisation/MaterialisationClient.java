@@ -1,12 +1,14 @@
 package me.shedaniel.materialisation;
 
 import me.shedaniel.materialisation.api.Modifier;
+import me.shedaniel.materialisation.api.ModifierLevels;
 import me.shedaniel.materialisation.api.ToolType;
 import me.shedaniel.materialisation.containers.MaterialPreparerContainer;
 import me.shedaniel.materialisation.containers.MaterialPreparerScreen;
 import me.shedaniel.materialisation.containers.MaterialisingTableContainer;
 import me.shedaniel.materialisation.containers.MaterialisingTableScreen;
 import me.shedaniel.materialisation.items.MaterialisedMiningTool;
+import me.shedaniel.materialisation.utils.MaterialPalette;
 import net.fabricmc.api.ClientModInitializer;
 import net.fabricmc.api.EnvType;
 import net.fabricmc.api.Environment;
@@ -35,6 +37,7 @@ import net.minecraft.client.util.SpriteIdentifier;
 import net.minecraft.item.Item;
 import net.minecraft.item.ItemPropertyGetter;
 import net.minecraft.item.ItemStack;
+import net.minecraft.network.PacketByteBuf;
 import net.minecraft.resource.Resource;
 import net.minecraft.sound.SoundEvents;
 import net.minecraft.text.TranslatableText;
@@ -68,6 +71,14 @@ public class MaterialisationClient implements ClientModInitializer {
         ClientSidePacketRegistry.INSTANCE.register(Materialisation.MATERIALISING_TABLE_PLAY_SOUND, (packetContext, packetByteBuf) ->
                 MinecraftClient.getInstance().getSoundManager().play(PositionedSoundInstance.master(SoundEvents.BLOCK_ANVIL_USE, 1, 1))
         );
+        ClientSidePacketRegistry.INSTANCE.register(Materialisation.MATERIAL_PALETTE_SYNC, (packetContext, packetByteBuf) -> {
+            // The buffer is released once this returns, the copy is read on the client thread with the rest of the sync
+            PacketByteBuf buf = new PacketByteBuf(packetByteBuf.copy());
+            packetContext.getTaskQueue().execute(() -> {
+                MaterialPalette.readSync(buf);
+                MaterialisationUtils.invalidateToolStats();
+            });
+        });
         Item[] colorableToolParts = {
                 Materialisation.MEGAAXE_HEAD,
                 Materialisation.HAMMER_HEAD,
@@ -191,13 +202,12 @@ public class MaterialisationClient implements ClientModInitializer {
             BakedModel headModel = modelManager.getModel(headBright ? brightHeadIdentifier : headIdentifier);
             context.fallbackConsumer().accept(headModel);
             context.popTransform();
-            for (Map.Entry<Modifier, Integer> entry : MaterialisationUtils.getToolModifiers(stack).entrySet()) {
-                if (entry.getValue() > 0) {
-                    ModelIdentifier modifierModelId = getModifierModel(entry.getKey());
-                    if (modifierModelId != null) {
-                        BakedModel modifierModel = modelManager.getModel(modifierModelId);
-                        context.fallbackConsumer().accept(modifierModel);
-                    }
+            ModifierLevels modifiers = MaterialisationUtils.getToolModifierLevels(stack);
+            for (int i = 0; i < modifiers.size(); i++) {
+                ModelIdentifier modifierModelId = getModifierModel(modifiers.getModifier(i));
+                if (modifierModelId != null) {
+                    BakedModel modifierModel = modelManager.getModel(modifierModelId);
+                    context.fallbackConsumer().accept(modifierModel);
                 }
             }
         }
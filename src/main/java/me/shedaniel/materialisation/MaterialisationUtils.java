@@ -1,16 +1,22 @@
 package me.shedaniel.materialisation;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.google.common.collect.ImmutableList;
 import me.shedaniel.materialisation.api.*;
 import me.shedaniel.materialisation.config.ConfigHelper;
 import me.shedaniel.materialisation.items.ColoredItem;
 import me.shedaniel.materialisation.items.MaterialisedMiningTool;
 import me.shedaniel.materialisation.modifiers.DefaultModifiers;
+import me.shedaniel.materialisation.utils.MaterialPalette;
 import me.shedaniel.materialisation.utils.RomanNumber;
+import me.shedaniel.materialisation.utils.ToolStatsSlot;
 import net.minecraft.client.item.TooltipContext;
+import net.minecraft.item.Item;
 import net.minecraft.item.ItemStack;
 import net.minecraft.item.ToolMaterial;
 import net.minecraft.nbt.CompoundTag;
+import net.minecraft.nbt.Tag;
 import net.minecraft.recipe.Ingredient;
 import net.minecraft.text.LiteralText;
 import net.minecraft.text.Text;
@@ -20,9 +26,11 @@ import net.minecraft.util.Identifier;
 import net.minecraft.util.math.MathHelper;
 import net.minecraft.world.World;
 
+import javax.annotation.Nullable;
 import java.text.DecimalFormat;
 import java.text.NumberFormat;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class MaterialisationUtils {
     
@@ -58,6 +66,9 @@ public class MaterialisationUtils {
             return Ingredient.EMPTY;
         }
     };
+    private static final AtomicInteger TOOL_STATS_GENERATION = new AtomicInteger();
+    private static final String[] MATERIAL_KEYS = {"mt_0_material", "mt_1_material"};
+    private static final Cache<CompoundTag, ToolStatsEntry> TOOL_STATS_CACHE = CacheBuilder.newBuilder().weakKeys().maximumSize(4096).build();
     
     public static Formatting getColoring(double f) {
         if (f == 1d)
@@ -75,33 +86,94 @@ public class MaterialisationUtils {
         return Formatting.RED;
     }
     
-    public static int getToolEnchantability(ItemStack stack) {
-        return getToolEnchantability(stack, true);
+    public static ToolStats getToolStats(ItemStack stack) {
+        CompoundTag tag = stack.getTag();
+        if (tag == null)
+            return ToolStats.EMPTY;
+        // Stacks remember their last stats until their tag is written to, this is hit by every durability check
+        ToolStatsSlot.Holder holder = ToolStatsSlot.getHolder(stack);
+        ToolStatsSlot slot = holder.materialisation_getToolStatsSlot();
+        int generation = TOOL_STATS_GENERATION.get();
+        if (slot != null && slot.isValid(generation, tag))
+            return slot.getStats();
+        ToolStats stats = getToolStats(stack, tag, generation);
+        holder.materialisation_setToolStatsSlot(new ToolStatsSlot(generation, tag, stats));
+        return stats;
+    }
+    
+    private static ToolStats getToolStats(ItemStack stack, CompoundTag tag, int generation) {
+        // Reloads publish their snapshot before bumping the generation, so a snapshot read after the generation is never
+        // older than it, everything below is resolved against this one snapshot
+        MaterialisationSnapshot snapshot = MaterialisationSnapshot.get();
+        ToolStatsEntry entry = TOOL_STATS_CACHE.getIfPresent(tag);
+        if (entry == null || !entry.matches(stack.getItem(), tag, generation, snapshot)) {
+            entry = new ToolStatsEntry(stack.getItem(), tag, generation, snapshot, computeToolStats(stack, tag, snapshot));
+            TOOL_STATS_CACHE.put(tag, entry);
+        } else if (entry.generation != generation || entry.stats.getDurability() != getDurability(tag, entry.stats.getMaxDurability())) {
+            entry = entry.withDurability(tag, generation);
+            TOOL_STATS_CACHE.put(tag, entry);
+        }
+        return entry.stats;
     }
     
-    public static int getToolEnchantability(ItemStack stack, boolean modifiers) {
-        int enchantability = 0;
-        CompoundTag tag = stack.getOrCreateTag();
-        if (tag.contains("mt_0_material") && tag.contains("mt_1_material")) {
-            PartMaterial handle = MaterialisationUtils.getMaterialFromString(tag.getString("mt_0_material"));
-            PartMaterial head = MaterialisationUtils.getMaterialFromString(tag.getString("mt_1_material"));
-            enchantability = ((handle == null ? 0 : handle.getEnchantability()) + (head == null ? 0 : head.getEnchantability())) / 2;
-        }
-        if (!modifiers) return enchantability;
-        return enchantability + getToolExtraEnchantability(stack, enchantability);
+    public static void invalidateToolStats() {
+        TOOL_STATS_GENERATION.incrementAndGet();
+        TOOL_STATS_CACHE.invalidateAll();
+    }
+    
+    /**
+     * Like {@link #invalidateToolStats()}, but cached stats are kept for tools whose materials resolve to the same
+     * instances as before, for reloads that keep unchanged materials.
+     */
+    public static void refreshToolStats() {
+        TOOL_STATS_GENERATION.incrementAndGet();
     }
     
-    @Deprecated
-    private static int getToolExtraEnchantability(ItemStack stack, int base) {
-        int extraEnchantability = 0;
+    private static ToolStats computeToolStats(ItemStack stack, CompoundTag tag, MaterialisationSnapshot snapshot) {
+        ModifierLevels modifiers = ModifierLevels.read(tag);
+        boolean hasMaterials = hasMaterial(tag, 0) && hasMaterial(tag, 1);
+        MaterialStatTable table = snapshot.getStatTable();
+        int handle = table.getId(getMaterial(tag, 0, snapshot));
+        int head = table.getId(getMaterial(tag, 1, snapshot));
         
-        for (Map.Entry<Modifier, Integer> entry : getToolModifiers(stack).entrySet()) {
-            if (entry.getValue() > 0)
-                extraEnchantability += entry.getKey().getExtraEnchantability(stack, entry.getValue());
-        }
+        int baseMaxDurability = 1;
+        if (hasMaterials)
+            baseMaxDurability = MathHelper.floor((handle < 0 ? 0d : table.getDurabilityMultiplier(handle)) * (head < 0 ? 0 : table.getToolDurability(head)));
+        float baseBreakingSpeed = 0;
+        if (hasMaterials)
+            baseBreakingSpeed = (handle < 0 ? 0f : (float) table.getBreakingSpeedMultiplier(handle)) * (head < 0 ? 0f : (float) table.getToolSpeed(head));
+        if (stack.getItem() == Materialisation.MATERIALISED_HAMMER) baseBreakingSpeed /= 4.5f;
+        if (stack.getItem() == Materialisation.MATERIALISED_MEGAAXE) baseBreakingSpeed /= 6f;
+        int baseMiningLevel = head < 0 ? 0 : Math.max(table.getMiningLevel(head), 0);
+        int baseEnchantability = 0;
+        if (hasMaterials)
+            baseEnchantability = ((handle < 0 ? 0 : table.getEnchantability(handle)) + (head < 0 ? 0 : table.getEnchantability(head))) / 2;
+        float baseAttackDamage = head < 0 ? 0 : (float) table.getAttackDamage(head) + MaterialisedMiningTool.getExtraDamageFromItem(stack.getItem());
+        
+        ModifierFolder folder = new ModifierFolder(baseMaxDurability, baseBreakingSpeed, baseMiningLevel, baseEnchantability, baseAttackDamage).fold(stack, modifiers);
+        // Tools without both parts never had their durability modified
+        int maxDurability = hasMaterials ? folder.getMaxDurability() : 1;
+        float breakingSpeed = folder.getBreakingSpeed();
+        int miningLevel = folder.getMiningLevel();
+        int enchantability = folder.getEnchantability();
+        float attackDamage = folder.getAttackDamage();
         
-        // We are not going to allow enchantability higher than 100
-        return Math.min(extraEnchantability, 100 - base);
+        return new ToolStats(getDurability(tag, maxDurability), maxDurability, baseMaxDurability, breakingSpeed, baseBreakingSpeed, miningLevel, baseMiningLevel, enchantability, baseEnchantability, attackDamage, baseAttackDamage, modifiers);
+    }
+    
+    private static int getDurability(CompoundTag tag, int maxDurability) {
+        if (tag.contains("mt_durability"))
+            return Math.min(tag.getInt("mt_durability"), maxDurability);
+        return maxDurability;
+    }
+    
+    public static int getToolEnchantability(ItemStack stack) {
+        return getToolEnchantability(stack, true);
+    }
+    
+    public static int getToolEnchantability(ItemStack stack, boolean modifiers) {
+        ToolStats stats = getToolStats(stack);
+        return modifiers ? stats.getEnchantability() : stats.getBaseEnchantability();
     }
     
     public static float getToolBreakingSpeed(ItemStack stack) {
@@ -109,39 +181,13 @@ public class MaterialisationUtils {
     }
     
     public static float getToolBreakingSpeed(ItemStack stack, boolean modifiers) {
-        float speed = getBaseToolBreakingSpeed(stack);
-        if (speed <= 0) return 0;
-        if (!modifiers) return speed;
-        return getToolAfterExtraBreakingSpeed(stack, speed);
-    }
-    
-    @Deprecated
-    private static float getToolAfterExtraBreakingSpeed(ItemStack stack, float base) {
-        float speed = base;
-        
-        for (Map.Entry<Modifier, Integer> entry : getToolModifiers(stack).entrySet()) {
-            if (entry.getValue() > 0)
-                speed *= entry.getKey().getMiningSpeedMultiplier(stack, entry.getValue());
-        }
-        for (Map.Entry<Modifier, Integer> entry : getToolModifiers(stack).entrySet()) {
-            if (entry.getValue() > 0)
-                speed += entry.getKey().getExtraMiningSpeed(stack, entry.getValue());
-        }
-        
-        // We are not going to allow speed higher than 50
-        return Math.min(speed, 50);
+        ToolStats stats = getToolStats(stack);
+        if (stats.getBaseBreakingSpeed() <= 0) return 0;
+        return modifiers ? stats.getBreakingSpeed() : stats.getBaseBreakingSpeed();
     }
     
     public static float getBaseToolBreakingSpeed(ItemStack stack) {
-        float speed = 0;
-        if (stack.hasTag()) {
-            CompoundTag tag = stack.getTag();
-            if (tag.contains("mt_0_material") && tag.contains("mt_1_material"))
-                speed = getMatFromString(tag.getString("mt_0_material")).map(PartMaterial::getBreakingSpeedMultiplier).orElse(0d).floatValue() * getMatFromString(tag.getString("mt_1_material")).map(PartMaterial::getToolSpeed).orElse(0d).floatValue();
-        }
-        if (stack.getItem() == Materialisation.MATERIALISED_HAMMER) speed /= 4.5f;
-        if (stack.getItem() == Materialisation.MATERIALISED_MEGAAXE) speed /= 6f;
-        return speed;
+        return getToolStats(stack).getBaseBreakingSpeed();
     }
     
     public static int getToolMiningLevel(ItemStack stack) {
@@ -149,37 +195,12 @@ public class MaterialisationUtils {
     }
     
     public static int getToolMiningLevel(ItemStack stack, boolean modifiers) {
-        int miningLevel = 0;
-        if (stack.hasTag()) {
-            CompoundTag tag = stack.getTag();
-            if (tag.contains("mt_1_material"))
-                miningLevel = getMatFromString(tag.getString("mt_1_material")).map(PartMaterial::getMiningLevel).orElse(0);
-        }
-        if (miningLevel <= 0) miningLevel = 0;
-        if (!modifiers) return miningLevel;
-        return miningLevel + getToolExtraMiningLevel(stack, miningLevel);
-    }
-    
-    @Deprecated
-    private static int getToolExtraMiningLevel(ItemStack stack, int base) {
-        int extraMiningLevel = 0;
-        
-        for (Map.Entry<Modifier, Integer> entry : getToolModifiers(stack).entrySet()) {
-            if (entry.getValue() > 0)
-                extraMiningLevel += entry.getKey().getExtraMiningLevel(stack, entry.getValue());
-        }
-        
-        // We are not going to allow level higher than 10
-        return Math.min(extraMiningLevel, 10 - base);
+        ToolStats stats = getToolStats(stack);
+        return modifiers ? stats.getMiningLevel() : stats.getBaseMiningLevel();
     }
     
     public static int getToolDurability(ItemStack stack) {
-        if (!stack.hasTag())
-            return 1;
-        CompoundTag tag = stack.getTag();
-        if (tag.contains("mt_durability"))
-            return Math.min(tag.getInt("mt_durability"), getToolMaxDurability(stack));
-        return getToolMaxDurability(stack);
+        return getToolStats(stack).getDurability();
     }
     
     public static int getToolMaxDurability(ItemStack stack) {
@@ -187,51 +208,16 @@ public class MaterialisationUtils {
     }
     
     public static int getToolMaxDurability(ItemStack stack, boolean modifiers) {
-        if (!stack.hasTag())
-            return 1;
-        CompoundTag tag = stack.getTag();
-        if (tag.contains("mt_0_material") && tag.contains("mt_1_material"))
-            if (tag.contains("mt_0_material") && tag.contains("mt_1_material")) {
-                double multiplier = getMatFromString(tag.getString("mt_0_material"))
-                        .map(PartMaterial::getDurabilityMultiplier).orElse(0d);
-                int durability = getMatFromString(tag.getString("mt_1_material"))
-                        .map(PartMaterial::getToolDurability).orElse(0);
-                durability = MathHelper.floor(multiplier * durability);
-                
-                if (modifiers) {
-                    for (Map.Entry<Modifier, Integer> entry : getToolModifiers(stack).entrySet()) {
-                        durability *= entry.getKey().getDurabilityMultiplier(stack, entry.getValue());
-                    }
-                    for (Map.Entry<Modifier, Integer> entry : getToolModifiers(stack).entrySet()) {
-                        durability -= entry.getKey().getDurabilityCost(stack, entry.getValue());
-                    }
-                }
-                
-                return durability;
-            }
-        return 1;
+        ToolStats stats = getToolStats(stack);
+        return modifiers ? stats.getMaxDurability() : stats.getBaseMaxDurability();
     }
     
     public static Map<Modifier, Integer> getToolModifiers(ItemStack stack) {
-        if (!stack.hasTag())
-            return Collections.emptyMap();
-        Map<Modifier, Integer> map = new HashMap<>();
-        CompoundTag tag = stack.getTag();
-        if (tag.contains("modifiers")) {
-            CompoundTag modifiersTag = tag.getCompound("modifiers");
-            if (!modifiersTag.isEmpty()) {
-                for (String key : modifiersTag.getKeys()) {
-                    Identifier identifier = new Identifier(key);
-                    Optional<Modifier> modifiersOrEmpty = Materialisation.MODIFIERS.getOrEmpty(identifier);
-                    if (modifiersOrEmpty.isPresent()) {
-                        int level = modifiersTag.getInt(key);
-                        if (level > 0)
-                            map.put(modifiersOrEmpty.get(), level);
-                    }
-                }
-            }
-        }
-        return map;
+        return getToolStats(stack).getModifiers();
+    }
+    
+    public static ModifierLevels getToolModifierLevels(ItemStack stack) {
+        return getToolStats(stack).getModifierLevels();
     }
     
     public static float getToolAttackDamage(ItemStack stack) {
@@ -239,47 +225,25 @@ public class MaterialisationUtils {
     }
     
     public static float getToolAttackDamage(ItemStack stack, boolean modifiers) {
-        if (!stack.hasTag())
-            return 0;
-        CompoundTag tag = stack.getTag();
-        PartMaterial material = tag.contains("mt_1_material") ? getMatFromString(tag.getString("mt_1_material")).orElse(null) : null;
-        float attackDamage = material == null ? 0 : (float) material.getAttackDamage() + MaterialisedMiningTool.getExtraDamageFromItem(stack.getItem());
-        if (!modifiers) return attackDamage;
-        return getToolAfterExtraAttackDamage(stack, attackDamage);
-    }
-    
-    @Deprecated
-    private static float getToolAfterExtraAttackDamage(ItemStack stack, float base) {
-        float attackDamage = base;
-        
-        for (Map.Entry<Modifier, Integer> entry : getToolModifiers(stack).entrySet()) {
-            if (entry.getValue() > 0)
-                attackDamage *= entry.getKey().getAttackDamageMultiplier(stack, entry.getValue());
-        }
-        for (Map.Entry<Modifier, Integer> entry : getToolModifiers(stack).entrySet()) {
-            if (entry.getValue() > 0)
-                attackDamage += entry.getKey().getExtraAttackDamage(stack, entry.getValue());
-        }
-        
-        // We are not going to allow attack damage higher than 100
-        return Math.min(attackDamage, 100);
+        ToolStats stats = getToolStats(stack);
+        return modifiers ? stats.getAttackDamage() : stats.getBaseAttackDamage();
     }
     
     public static int getItemLayerColor(ItemStack stack, int layer) {
         if (!stack.hasTag())
             return -1;
         CompoundTag tag = stack.getTag();
-        if (layer == 0)
-            if (tag.contains("mt_0_material"))
-                return getMatFromString(tag.getString("mt_0_material")).map(PartMaterial::getToolColor).orElse(-1);
-        if (layer == 1)
-            if (tag.contains("mt_1_material"))
-                return getMatFromString(tag.getString("mt_1_material")).map(PartMaterial::getToolColor).orElse(-1);
+        if (layer == 0 || layer == 1) {
+            PartMaterial material = getMaterial(tag, layer);
+            if (material != null)
+                return material.getToolColor();
+        }
         return -1;
     }
     
     public static void setToolDurability(ItemStack stack, int i) {
         CompoundTag tag = stack.getOrCreateTag();
+        migrateMaterials(tag);
         tag.putInt("mt_durability", Math.min(i, getToolMaxDurability(stack)));
         stack.setTag(tag);
     }
@@ -308,7 +272,7 @@ public class MaterialisationUtils {
     public static ItemStack createToolHandle(PartMaterial material) {
         ItemStack stack = new ItemStack(Materialisation.HANDLE);
         CompoundTag tag = stack.getOrCreateTag();
-        tag.putString("mt_0_material", material.getIdentifier().toString());
+        putMaterials(tag, material);
         stack.setTag(tag);
         return stack;
     }
@@ -316,7 +280,7 @@ public class MaterialisationUtils {
     public static ItemStack createAxeHead(PartMaterial material) {
         ItemStack stack = new ItemStack(Materialisation.AXE_HEAD);
         CompoundTag tag = stack.getOrCreateTag();
-        tag.putString("mt_0_material", material.getIdentifier().toString());
+        putMaterials(tag, material);
         stack.setTag(tag);
         return stack;
     }
@@ -324,7 +288,7 @@ public class MaterialisationUtils {
     public static ItemStack createPickaxeHead(PartMaterial material) {
         ItemStack stack = new ItemStack(Materialisation.PICKAXE_HEAD);
         CompoundTag tag = stack.getOrCreateTag();
-        tag.putString("mt_0_material", material.getIdentifier().toString());
+        putMaterials(tag, material);
         stack.setTag(tag);
         return stack;
     }
@@ -332,7 +296,7 @@ public class MaterialisationUtils {
     public static ItemStack createShovelHead(PartMaterial material) {
         ItemStack stack = new ItemStack(Materialisation.SHOVEL_HEAD);
         CompoundTag tag = stack.getOrCreateTag();
-        tag.putString("mt_0_material", material.getIdentifier().toString());
+        putMaterials(tag, material);
         stack.setTag(tag);
         return stack;
     }
@@ -340,59 +304,132 @@ public class MaterialisationUtils {
     public static ItemStack createSwordBlade(PartMaterial material) {
         ItemStack stack = new ItemStack(Materialisation.SWORD_BLADE);
         CompoundTag tag = stack.getOrCreateTag();
-        tag.putString("mt_0_material", material.getIdentifier().toString());
+        putMaterials(tag, material);
         stack.setTag(tag);
         return stack;
     }
     
     public static PartMaterial getMaterialFromPart(ItemStack stack) {
-        if (stack.getOrCreateTag().contains("mt_0_material"))
-            return getMaterialFromString(stack.getOrCreateTag().getString("mt_0_material"));
-        else
+        return getMaterial(stack.getTag(), 0);
+    }
+    
+    public static boolean hasMaterial(@Nullable CompoundTag tag, int part) {
+        if (tag == null)
+            return false;
+        if (tag.contains("mt_materials", 11) && tag.getIntArray("mt_materials").length > part + 1)
+            return true;
+        return tag.contains(MATERIAL_KEYS[part]);
+    }
+    
+    /**
+     * Reads the material of a part from the packed palette ids, tools not migrated yet are read from their string keys.
+     */
+    @Nullable
+    public static PartMaterial getMaterial(@Nullable CompoundTag tag, int part) {
+        return getMaterial(tag, part, MaterialisationSnapshot.get());
+    }
+    
+    /**
+     * Like {@link #getMaterial(CompoundTag, int)}, but resolved against the given snapshot.
+     */
+    @Nullable
+    public static PartMaterial getMaterial(@Nullable CompoundTag tag, int part, MaterialisationSnapshot snapshot) {
+        if (tag == null)
             return null;
+        if (tag.contains("mt_materials", 11)) {
+            int[] ids = tag.getIntArray("mt_materials");
+            MaterialPalette palette = MaterialPalette.getActive();
+            return ids.length > part + 1 && palette != null ? palette.getMaterial(ids[0], ids[part + 1], snapshot) : null;
+        }
+        if (tag.contains(MATERIAL_KEYS[part]))
+            return getMatFromString(tag.getString(MATERIAL_KEYS[part]), snapshot).orElse(null);
+        return null;
+    }
+    
+    /**
+     * Writes the materials of the parts as palette ids, or as string keys when there is no palette to write to.
+     */
+    public static void putMaterials(CompoundTag tag, PartMaterial... materials) {
+        MaterialPalette palette = MaterialPalette.getWritable();
+        if (palette == null) {
+            tag.remove("mt_materials");
+            for (int i = 0; i < materials.length; i++)
+                tag.putString(MATERIAL_KEYS[i], materials[i].getIdentifier().toString());
+            return;
+        }
+        int[] ids = new int[materials.length + 1];
+        ids[0] = palette.getStamp();
+        for (int i = 0; i < materials.length; i++)
+            ids[i + 1] = palette.getOrCreateId(materials[i].getIdentifier());
+        tag.putIntArray("mt_materials", ids);
+        for (String key : MATERIAL_KEYS)
+            tag.remove(key);
+    }
+    
+    /**
+     * Replaces the string keys of a tool written before the palette with palette ids, called by the writers of a tool.
+     * <p>
+     * Tools are only migrated on the server thread as they are written to anyway, reading a tool never changes it.
+     */
+    public static void migrateMaterials(CompoundTag tag) {
+        int parts = tag.contains(MATERIAL_KEYS[1]) ? 2 : tag.contains(MATERIAL_KEYS[0]) ? 1 : 0;
+        if (parts == 0 || tag.contains("mt_materials", 11))
+            return;
+        MaterialPalette palette = MaterialPalette.getWritable();
+        if (palette == null)
+            return;
+        int[] ids = new int[parts + 1];
+        ids[0] = palette.getStamp();
+        for (int i = 0; i < parts; i++) {
+            Identifier identifier = Identifier.tryParse(tag.getString(MATERIAL_KEYS[i]));
+            if (identifier == null)
+                return;
+            ids[i + 1] = palette.getOrCreateId(identifier);
+        }
+        tag.putIntArray("mt_materials", ids);
+        for (String key : MATERIAL_KEYS)
+            tag.remove(key);
     }
     
     public static PartMaterial getMaterialFromString(String s) {
         return getMatFromString(s).orElse(null);
     }
     
-    @SuppressWarnings("deprecation")
     public static Optional<PartMaterial> getMatFromString(String s) {
+        // Resolve against a single snapshot, so the cached entry is tagged with the generation it came from
+        return getMatFromString(s, MaterialisationSnapshot.get());
+    }
+    
+    private static Optional<PartMaterial> getMatFromString(String s, MaterialisationSnapshot snapshot) {
         {
-            PartMaterial cache = ConfigHelper.MATERIAL_CACHE.get(s);
+            PartMaterial cache = ConfigHelper.MATERIAL_CACHE.get(s, snapshot.getGeneration());
             if (cache != null)
                 return Optional.of(cache);
         }
-        String ss = s.contains(":") ? s : "minecraft:" + s;
-        for (Map.Entry<String, MaterialsPack> entry : PartMaterials.getMaterialsMap().entrySet()) {
-            for (Map.Entry<String, PartMaterial> materialEntry : entry.getValue().getKnownMaterialMap().entrySet()) {
-                PartMaterial value = materialEntry.getValue();
-                if (value.getIdentifier().toString().equals(ss))
-                    return Optional.of(cacheMaterialFromString(s, value));
-            }
-        }
-        return Optional.empty();
-    }
-    
-    private static PartMaterial cacheMaterialFromString(String s, PartMaterial material) {
-        ConfigHelper.MATERIAL_CACHE.put(s, material);
-        return material;
+        Identifier identifier = Identifier.tryParse(s);
+        if (identifier == null)
+            return Optional.empty();
+        PartMaterial material = snapshot.getMaterial(identifier);
+        if (material == null)
+            return Optional.empty();
+        return Optional.of(ConfigHelper.MATERIAL_CACHE.put(s, snapshot.getGeneration(), material));
     }
     
     public static boolean isHandleBright(ItemStack itemStack) {
-        return MaterialisationUtils.getMatFromString(itemStack.getOrCreateTag().getString("mt_0_material")).map(PartMaterial::isBright).orElse(false);
+        PartMaterial material = getMaterial(itemStack.getTag(), 0);
+        return material != null && material.isBright();
     }
     
     public static boolean isHeadBright(ItemStack itemStack) {
-        return MaterialisationUtils.getMatFromString(itemStack.getOrCreateTag().getString("mt_1_material")).map(PartMaterial::isBright).orElse(false);
+        PartMaterial material = getMaterial(itemStack.getTag(), 1);
+        return material != null && material.isBright();
     }
     
     public static ItemStack createPickaxe(PartMaterial handle, PartMaterial pickaxeHead) {
         ItemStack stack = new ItemStack(Materialisation.MATERIALISED_PICKAXE);
         CompoundTag tag = stack.getOrCreateTag();
         tag.putBoolean("mt_done_tool", true);
-        tag.putString("mt_0_material", handle.getIdentifier().toString());
-        tag.putString("mt_1_material", pickaxeHead.getIdentifier().toString());
+        putMaterials(tag, handle, pickaxeHead);
         stack.setTag(tag);
         return stack;
     }
@@ -401,8 +438,7 @@ public class MaterialisationUtils {
         ItemStack stack = new ItemStack(Materialisation.MATERIALISED_AXE);
         CompoundTag tag = stack.getOrCreateTag();
         tag.putBoolean("mt_done_tool", true);
-        tag.putString("mt_0_material", handle.getIdentifier().toString());
-        tag.putString("mt_1_material", axeHead.getIdentifier().toString());
+        putMaterials(tag, handle, axeHead);
         stack.setTag(tag);
         return stack;
     }
@@ -411,8 +447,7 @@ public class MaterialisationUtils {
         ItemStack stack = new ItemStack(Materialisation.MATERIALISED_SHOVEL);
         CompoundTag tag = stack.getOrCreateTag();
         tag.putBoolean("mt_done_tool", true);
-        tag.putString("mt_0_material", handle.getIdentifier().toString());
-        tag.putString("mt_1_material", shovelHead.getIdentifier().toString());
+        putMaterials(tag, handle, shovelHead);
         stack.setTag(tag);
         return stack;
     }
@@ -421,8 +456,7 @@ public class MaterialisationUtils {
         ItemStack stack = new ItemStack(Materialisation.MATERIALISED_SWORD);
         CompoundTag tag = stack.getOrCreateTag();
         tag.putBoolean("mt_done_tool", true);
-        tag.putString("mt_0_material", handle.getIdentifier().toString());
-        tag.putString("mt_1_material", swordBlade.getIdentifier().toString());
+        putMaterials(tag, handle, swordBlade);
         stack.setTag(tag);
         return stack;
     }
@@ -431,8 +465,7 @@ public class MaterialisationUtils {
         ItemStack stack = new ItemStack(Materialisation.MATERIALISED_HAMMER);
         CompoundTag tag = stack.getOrCreateTag();
         tag.putBoolean("mt_done_tool", true);
-        tag.putString("mt_0_material", handle.getIdentifier().toString());
-        tag.putString("mt_1_material", hammerHead.getIdentifier().toString());
+        putMaterials(tag, handle, hammerHead);
         stack.setTag(tag);
         return stack;
     }
@@ -441,8 +474,7 @@ public class MaterialisationUtils {
         ItemStack stack = new ItemStack(Materialisation.MATERIALISED_MEGAAXE);
         CompoundTag tag = stack.getOrCreateTag();
         tag.putBoolean("mt_done_tool", true);
-        tag.putString("mt_0_material", handle.getIdentifier().toString());
-        tag.putString("mt_1_material", megaAxeHead.getIdentifier().toString());
+        putMaterials(tag, handle, megaAxeHead);
         stack.setTag(tag);
         return stack;
     }
@@ -450,7 +482,7 @@ public class MaterialisationUtils {
     public static ItemStack createMegaAxeHead(PartMaterial material) {
         ItemStack stack = new ItemStack(Materialisation.MEGAAXE_HEAD);
         CompoundTag tag = stack.getOrCreateTag();
-        tag.putString("mt_0_material", material.getIdentifier().toString());
+        putMaterials(tag, material);
         stack.setTag(tag);
         return stack;
     }
@@ -458,7 +490,7 @@ public class MaterialisationUtils {
     public static ItemStack createHammerHead(PartMaterial material) {
         ItemStack stack = new ItemStack(Materialisation.HAMMER_HEAD);
         CompoundTag tag = stack.getOrCreateTag();
-        tag.putString("mt_0_material", material.getIdentifier().toString());
+        putMaterials(tag, material);
         stack.setTag(tag);
         return stack;
     }
@@ -472,9 +504,10 @@ public class MaterialisationUtils {
     }
     
     public static void appendToolTooltip(ItemStack stack, MaterialisedMiningTool tool, World world_1, List<Text> list_1, TooltipContext tooltipContext_1) {
-        int toolDurability = getToolDurability(stack);
-        int baseMaxDurability = getToolMaxDurability(stack, false);
-        int maxDurability = getToolMaxDurability(stack);
+        ToolStats stats = getToolStats(stack);
+        int toolDurability = stats.getDurability();
+        int baseMaxDurability = stats.getBaseMaxDurability();
+        int maxDurability = stats.getMaxDurability();
         if (baseMaxDurability > maxDurability)
             list_1.add(new TranslatableText("text.materialisation.max_durability_less", maxDurability, baseMaxDurability - maxDurability));
         else if (baseMaxDurability < maxDurability)
@@ -488,8 +521,8 @@ public class MaterialisationUtils {
             list_1.add(new TranslatableText("text.materialisation.broken"));
         if (ImmutableList.copyOf(ToolType.MINING_TOOLS).contains(tool.getToolType())) {
             {
-                float breakingSpeed = getToolBreakingSpeed(stack, false);
-                float extra = getToolBreakingSpeed(stack) - breakingSpeed;
+                float breakingSpeed = stats.getBaseBreakingSpeed() <= 0 ? 0 : stats.getBaseBreakingSpeed();
+                float extra = (stats.getBaseBreakingSpeed() <= 0 ? 0 : stats.getBreakingSpeed()) - breakingSpeed;
                 if (extra > 0)
                     list_1.add(new TranslatableText("text.materialisation.breaking_speed_extra", TWO_DECIMAL_FORMATTER.format(breakingSpeed + extra), TWO_DECIMAL_FORMATTER.format(extra)));
                 else if (extra < 0)
@@ -498,8 +531,8 @@ public class MaterialisationUtils {
                     list_1.add(new TranslatableText("text.materialisation.breaking_speed", TWO_DECIMAL_FORMATTER.format(breakingSpeed)));
             }
             {
-                int miningLevel = getToolMiningLevel(stack, false);
-                int extra = getToolMiningLevel(stack) - miningLevel;
+                int miningLevel = stats.getBaseMiningLevel();
+                int extra = stats.getMiningLevel() - miningLevel;
                 if (extra > 0)
                     list_1.add(new TranslatableText("text.materialisation.mining_level_extra", miningLevel + extra, extra));
                 else if (extra < 0)
@@ -509,8 +542,8 @@ public class MaterialisationUtils {
             }
         }
         {
-            int enchantability = getToolEnchantability(stack, false);
-            int extra = getToolEnchantability(stack) - enchantability;
+            int enchantability = stats.getBaseEnchantability();
+            int extra = stats.getEnchantability() - enchantability;
             if (extra > 0)
                 list_1.add(new TranslatableText("text.materialisation.enchantability_extra", enchantability + extra, extra));
             else if (extra < 0)
@@ -519,8 +552,8 @@ public class MaterialisationUtils {
                 list_1.add(new TranslatableText("text.materialisation.enchantability", enchantability));
         }
         {
-            float attackDamage = getToolAttackDamage(stack, false);
-            float extra = getToolAttackDamage(stack) - attackDamage;
+            float attackDamage = stats.getBaseAttackDamage();
+            float extra = stats.getAttackDamage() - attackDamage;
             if (extra > 0)
                 list_1.add(new TranslatableText("text.materialisation.attack_damage_extra", TWO_DECIMAL_FORMATTER.format(attackDamage + extra), TWO_DECIMAL_FORMATTER.format(extra)));
             else if (extra < 0)
@@ -528,17 +561,76 @@ public class MaterialisationUtils {
             else
                 list_1.add(new TranslatableText("text.materialisation.attack_damage", TWO_DECIMAL_FORMATTER.format(attackDamage)));
         }
-        Map<Modifier, Integer> modifiers = getToolModifiers(stack);
+        ModifierLevels modifiers = stats.getModifierLevels();
         if (!modifiers.isEmpty()) {
             list_1.add(new LiteralText(" "));
-            for (Map.Entry<Modifier, Integer> entry : modifiers.entrySet()) {
-                Identifier id = Materialisation.MODIFIERS.getId(entry.getKey());
-                if (entry.getValue() != 1 || entry.getKey().getMaximumLevel(stack) != 1)
-                    list_1.add(new TranslatableText("modifier." + id.getNamespace() + "." + id.getPath()).append(" " + RomanNumber.toRoman(entry.getValue())));
+            for (int i = 0; i < modifiers.size(); i++) {
+                Modifier modifier = modifiers.getModifier(i);
+                int level = modifiers.getLevel(i);
+                Identifier id = Materialisation.MODIFIERS.getId(modifier);
+                if (level != 1 || modifier.getMaximumLevel(stack) != 1)
+                    list_1.add(new TranslatableText("modifier." + id.getNamespace() + "." + id.getPath()).append(" " + RomanNumber.toRoman(level)));
                 else
                     list_1.add(new TranslatableText("modifier." + id.getNamespace() + "." + id.getPath()));
             }
         }
     }
     
+    /**
+     * The cache is keyed by the tag instance, so the parts of it that stats are computed from are kept by reference and
+     * only change when the tag is written to. Compounds can be written to in place, so their hash is kept as well.
+     */
+    private static final class ToolStatsEntry {
+        private final int generation;
+        private final Item item;
+        @Nullable
+        private final Tag handle, head, packed, modifiers;
+        private final int packedHash, modifiersHash;
+        @Nullable
+        private final PartMaterial handleMaterial, headMaterial;
+        private final ToolStats stats;
+        
+        private ToolStatsEntry(Item item, CompoundTag tag, int generation, MaterialisationSnapshot snapshot, ToolStats stats) {
+            this.generation = generation;
+            this.item = item;
+            this.handleMaterial = getMaterial(tag, 0, snapshot);
+            this.headMaterial = getMaterial(tag, 1, snapshot);
+            this.handle = tag.get("mt_0_material");
+            this.head = tag.get("mt_1_material");
+            this.packed = tag.get("mt_materials");
+            this.modifiers = tag.get("modifiers");
+            this.packedHash = Objects.hashCode(packed);
+            this.modifiersHash = Objects.hashCode(modifiers);
+            this.stats = stats;
+        }
+        
+        private ToolStatsEntry(ToolStatsEntry entry, CompoundTag tag, int generation) {
+            this.generation = generation;
+            this.item = entry.item;
+            this.handleMaterial = entry.handleMaterial;
+            this.headMaterial = entry.headMaterial;
+            this.handle = entry.handle;
+            this.head = entry.head;
+            this.packed = entry.packed;
+            this.modifiers = entry.modifiers;
+            this.packedHash = entry.packedHash;
+            this.modifiersHash = entry.modifiersHash;
+            this.stats = entry.stats.withDurability(getDurability(tag, entry.stats.getMaxDurability()));
+        }
+        
+        private ToolStatsEntry withDurability(CompoundTag tag, int generation) {
+            return new ToolStatsEntry(this, tag, generation);
+        }
+        
+        private boolean matches(Item item, CompoundTag tag, int generation, MaterialisationSnapshot snapshot) {
+            Tag packed = tag.get("mt_materials");
+            Tag modifiers = tag.get("modifiers");
+            return this.item == item && handle == tag.get("mt_0_material") && head == tag.get("mt_1_material")
+                   && this.packed == packed && packedHash == Objects.hashCode(packed)
+                   && this.modifiers == modifiers && modifiersHash == Objects.hashCode(modifiers)
+                   // Materials kept by a reload are the same instances, so their stats are still valid
+                   && (this.generation == generation || getMaterial(tag, 0, snapshot) == handleMaterial && getMaterial(tag, 1, snapshot) == headMaterial);
+        }
+    }
+    
 }
@@ -1,14 +1,15 @@
 package me.shedaniel.materialisation.api;
 
 import me.shedaniel.materialisation.config.MaterialisationConfig;
+import me.shedaniel.materialisation.utils.ItemTagCache;
 import net.minecraft.item.Item;
 import net.minecraft.item.ItemStack;
-import net.minecraft.tag.ItemTags;
 import net.minecraft.tag.Tag;
 import net.minecraft.util.Identifier;
 import net.minecraft.util.Lazy;
 import net.minecraft.util.registry.Registry;
 
+import javax.annotation.Nullable;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
@@ -17,15 +18,10 @@ public class BetterIngredient {
     public Type type;
     public String content;
     public int count;
-    private transient Lazy<ItemStack[]> stacks = new Lazy<>(() -> {
-        if (type == Type.ITEM)
-            return new ItemStack[]{new ItemStack(Registry.ITEM.get(new Identifier(content)), count)};
-        List<ItemStack> itemStacks = new ArrayList<>();
-        for (Item value : ItemTags.getContainer().get(new Identifier(content)).values()) {
-            itemStacks.add(new ItemStack(value, count));
-        }
-        return itemStacks.toArray(new ItemStack[0]);
-    });
+    private transient Lazy<Identifier> identifier = new Lazy<>(() -> new Identifier(content));
+    private transient Lazy<Item> item = new Lazy<>(() -> Registry.ITEM.get(identifier.get()));
+    @Nullable
+    private transient volatile Stacks stacks;
     
     public BetterIngredient(Type type, String content) {
         this(type, content, 1);
@@ -83,7 +79,23 @@ public class BetterIngredient {
     }
     
     public ItemStack[] getStacks() {
-        return stacks.get();
+        if (type == Type.ITEM) {
+            Stacks stacks = this.stacks;
+            if (stacks == null)
+                this.stacks = stacks = new Stacks(null, new ItemStack[]{new ItemStack(item.get(), count)});
+            return stacks.stacks;
+        }
+        // Tag contents change on reload, the stacks are built again whenever the cache hands out new contents
+        List<Item> items = ItemTagCache.getItems(identifier.get());
+        Stacks stacks = this.stacks;
+        if (stacks == null || stacks.items != items) {
+            List<ItemStack> itemStacks = new ArrayList<>();
+            for (Item value : items) {
+                itemStacks.add(new ItemStack(value, count));
+            }
+            this.stacks = stacks = new Stacks(items, itemStacks.toArray(new ItemStack[0]));
+        }
+        return stacks.stacks;
     }
     
     public List<ItemStack> getStacksList() {
@@ -91,12 +103,22 @@ public class BetterIngredient {
     }
     
     public boolean isIncluded(ItemStack itemStack_1) {
-        if (itemStack_1 == null)
+        if (itemStack_1 == null || count > itemStack_1.getCount())
             return false;
-        for (ItemStack stack : getStacks())
-            if (stack.getItem() == itemStack_1.getItem() && stack.getCount() <= itemStack_1.getCount())
-                return true;
-        return false;
+        if (type == Type.ITEM)
+            return item.get() == itemStack_1.getItem();
+        return ItemTagCache.contains(identifier.get(), itemStack_1.getItem());
+    }
+    
+    private static final class Stacks {
+        @Nullable
+        private final List<Item> items;
+        private final ItemStack[] stacks;
+        
+        private Stacks(@Nullable List<Item> items, ItemStack[] stacks) {
+            this.items = items;
+            this.stacks = stacks;
+        }
     }
     
     public enum Type {
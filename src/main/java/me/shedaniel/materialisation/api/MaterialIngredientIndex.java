@@ -0,0 +1,125 @@
+package me.shedaniel.materialisation.api;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import me.shedaniel.materialisation.Materialisation;
+import net.minecraft.item.Item;
+import net.minecraft.item.ItemStack;
+import net.minecraft.tag.TagContainer;
+import net.minecraft.util.registry.Registry;
+
+import javax.annotation.Nullable;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * The ingredients of every material of a {@link MaterialisationSnapshot} by item, with tags expanded.
+ * <p>
+ * When more than one material accepts an item, the material registered last wins, the same material the preparer used
+ * to end up with after checking every material in order. Packs register after the default pack, in load order.
+ * Within a material, its ingredients are checked in the order they were declared.
+ */
+public final class MaterialIngredientIndex {
+    
+    private final TagContainer<Item> tags;
+    private final Map<Item, List<Entry>> entries;
+    
+    MaterialIngredientIndex(List<PartMaterial> materials, TagContainer<Item> tags) {
+        this.tags = tags;
+        Map<Item, ImmutableList.Builder<Entry>> builders = Maps.newHashMap();
+        Map<Item, PartMaterial> owners = Maps.newHashMap();
+        Set<Item> shared = Sets.newHashSet();
+        for (PartMaterial material : Lists.reverse(materials))
+            for (Map.Entry<BetterIngredient, Float> ingredient : material.getIngredientMap().entrySet()) {
+                Entry entry = new Entry(material, ingredient.getKey(), ingredient.getValue());
+                for (Item item : ModifierIngredientIndex.getItems(ingredient.getKey())) {
+                    builders.computeIfAbsent(item, i -> ImmutableList.builder()).add(entry);
+                    if (owners.computeIfAbsent(item, i -> material) != material)
+                        shared.add(item);
+                }
+            }
+        Map<Item, List<Entry>> entries = Maps.newHashMapWithExpectedSize(builders.size());
+        builders.forEach((item, builder) -> entries.put(item, builder.build()));
+        this.entries = entries;
+        if (!shared.isEmpty())
+            Materialisation.LOGGER.debug("[Materialisation] Items used by more than one material, the material registered last is used: " + shared.stream().map(item -> Registry.ITEM.getId(item).toString()).sorted().collect(Collectors.joining(", ")));
+    }
+    
+    boolean isBuiltFrom(TagContainer<Item> tags) {
+        return this.tags == tags;
+    }
+    
+    /**
+     * @return every ingredient entry that accepts the item, ignoring the count, the winning materials first
+     */
+    public List<Entry> get(Item item) {
+        return entries.getOrDefault(item, Collections.emptyList());
+    }
+    
+    /**
+     * Finds the material the stack is made of, matching {@link PartMaterial#getRepairMultiplier(ItemStack)} of every
+     * material without checking each of them.
+     *
+     * @return the entry of the winning material, or null if no material takes the stack with a positive multiplier
+     */
+    @Nullable
+    public Entry find(ItemStack stack) {
+        PartMaterial checked = null;
+        for (Entry entry : get(stack.getItem())) {
+            // Only the first ingredient of a material that takes the stack counts, like getRepairMultiplier
+            if (entry.material == checked || entry.getCount() > stack.getCount())
+                continue;
+            if (entry.multiplier > 0)
+                return entry;
+            checked = entry.material;
+        }
+        return null;
+    }
+    
+    /**
+     * Matches {@link PartMaterial#getRepairMultiplier(ItemStack)} of the material, materials are compared by identifier so
+     * tools made before a reload still find their material.
+     *
+     * @return the multiplier of the first ingredient of the material that takes the stack, or -1 if none does
+     */
+    public float getMultiplier(PartMaterial material, ItemStack stack) {
+        for (Entry entry : get(stack.getItem()))
+            if (entry.getCount() <= stack.getCount() && (entry.material == material || entry.material.getIdentifier().equals(material.getIdentifier())))
+                return entry.multiplier;
+        return -1;
+    }
+    
+    public static final class Entry {
+        private final PartMaterial material;
+        private final BetterIngredient ingredient;
+        private final float multiplier;
+        
+        private Entry(PartMaterial material, BetterIngredient ingredient, float multiplier) {
+            this.material = material;
+            this.ingredient = ingredient;
+            this.multiplier = multiplier;
+        }
+        
+        public PartMaterial getMaterial() {
+            return material;
+        }
+        
+        public BetterIngredient getIngredient() {
+            return ingredient;
+        }
+        
+        public float getMultiplier() {
+            return multiplier;
+        }
+        
+        public int getCount() {
+            return ingredient.count;
+        }
+    }
+    
+}
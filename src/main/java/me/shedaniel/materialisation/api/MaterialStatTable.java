@@ -0,0 +1,148 @@
+package me.shedaniel.materialisation.api;
+
+import it.unimi.dsi.fastutil.objects.Reference2IntMap;
+import it.unimi.dsi.fastutil.objects.Reference2IntOpenHashMap;
+
+import javax.annotation.Nullable;
+
+/**
+ * A frozen copy of the stats of every registered material, stored as parallel arrays indexed by a dense material id.
+ * <p>
+ * Ids are only valid for the table they were obtained from, the table is rebuilt whenever the registered materials change.
+ */
+public final class MaterialStatTable {
+    
+    private final int generation;
+    private final PartMaterial[] materials;
+    private final Reference2IntMap<PartMaterial> ids;
+    private final int[] toolColor;
+    private final boolean[] bright;
+    private final double[] durabilityMultiplier;
+    private final double[] breakingSpeedMultiplier;
+    private final double[] attackDamage;
+    private final int[] toolDurability;
+    private final double[] toolSpeed;
+    private final int[] miningLevel;
+    private final int[] enchantability;
+    private final int[] fullAmount;
+    
+    MaterialStatTable(int generation, PartMaterial[] materials) {
+        int size = materials.length;
+        this.generation = generation;
+        this.materials = materials;
+        this.ids = new Reference2IntOpenHashMap<>(size);
+        this.ids.defaultReturnValue(-1);
+        this.toolColor = new int[size];
+        this.bright = new boolean[size];
+        this.durabilityMultiplier = new double[size];
+        this.breakingSpeedMultiplier = new double[size];
+        this.attackDamage = new double[size];
+        this.toolDurability = new int[size];
+        this.toolSpeed = new double[size];
+        this.miningLevel = new int[size];
+        this.enchantability = new int[size];
+        this.fullAmount = new int[size];
+        for (int id = 0; id < size; id++) {
+            PartMaterial material = materials[id];
+            ids.put(material, id);
+            toolColor[id] = getToolColor(material);
+            bright[id] = material.isBright();
+            durabilityMultiplier[id] = material.getDurabilityMultiplier();
+            breakingSpeedMultiplier[id] = material.getBreakingSpeedMultiplier();
+            attackDamage[id] = material.getAttackDamage();
+            toolDurability[id] = material.getToolDurability();
+            toolSpeed[id] = material.getToolSpeed();
+            miningLevel[id] = material.getMiningLevel();
+            enchantability[id] = material.getEnchantability();
+            fullAmount[id] = material.getFullAmount();
+        }
+    }
+    
+    /**
+     * Builds the table of the current snapshot ahead of its first use, called once the config has finished loading.
+     */
+    public static MaterialStatTable build() {
+        return MaterialisationSnapshot.get().getStatTable();
+    }
+    
+    /**
+     * @return the table of the current snapshot
+     */
+    public static MaterialStatTable getInstance() {
+        return MaterialisationSnapshot.get().getStatTable();
+    }
+    
+    private static int getToolColor(PartMaterial material) {
+        try {
+            return material.getToolColor();
+        } catch (RuntimeException e) {
+            // Malformed colors from configs should not stop the table from being built
+            return -1;
+        }
+    }
+    
+    /**
+     * @return the generation of the snapshot this table was built from
+     */
+    public int getGeneration() {
+        return generation;
+    }
+    
+    public int size() {
+        return materials.length;
+    }
+    
+    /**
+     * @return the dense id of the material, or -1 if the material is null or not registered
+     */
+    public int getId(@Nullable PartMaterial material) {
+        if (material == null)
+            return -1;
+        return ids.getInt(material);
+    }
+    
+    public PartMaterial getMaterial(int id) {
+        return materials[id];
+    }
+    
+    public int getToolColor(int id) {
+        return toolColor[id];
+    }
+    
+    public boolean isBright(int id) {
+        return bright[id];
+    }
+    
+    public double getDurabilityMultiplier(int id) {
+        return durabilityMultiplier[id];
+    }
+    
+    public double getBreakingSpeedMultiplier(int id) {
+        return breakingSpeedMultiplier[id];
+    }
+    
+    public double getAttackDamage(int id) {
+        return attackDamage[id];
+    }
+    
+    public int getToolDurability(int id) {
+        return toolDurability[id];
+    }
+    
+    public double getToolSpeed(int id) {
+        return toolSpeed[id];
+    }
+    
+    public int getMiningLevel(int id) {
+        return miningLevel[id];
+    }
+    
+    public int getEnchantability(int id) {
+        return enchantability[id];
+    }
+    
+    public int getFullAmount(int id) {
+        return fullAmount[id];
+    }
+    
+}
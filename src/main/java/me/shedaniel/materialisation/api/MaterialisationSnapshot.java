@@ -0,0 +1,308 @@
+package me.shedaniel.materialisation.api;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import me.shedaniel.materialisation.config.ConfigPack;
+import net.minecraft.item.Item;
+import net.minecraft.tag.ItemTags;
+import net.minecraft.tag.TagContainer;
+import net.minecraft.util.Identifier;
+
+import javax.annotation.Nullable;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.UnaryOperator;
+
+/**
+ * Everything game threads read from a config load: the material packs, the materials by identifier and the ingredients
+ * of every modifier.
+ * <p>
+ * Snapshots are never changed once published. Loads build a new snapshot off-thread and swap it in with a single
+ * volatile write, so readers never block and never see half of a load.
+ * <p>
+ * Materials, packs and ingredients registered one at a time are published right away by the registering thread. Inside
+ * {@link #batch(Runnable)} they are collected instead and published together once the batch ends, so registering many
+ * of them stays linear.
+ */
+public final class MaterialisationSnapshot {
+    
+    private static final AtomicInteger GENERATIONS = new AtomicInteger();
+    private static volatile MaterialisationSnapshot current = new MaterialisationSnapshot(PartMaterials.createDefaultPack(), Collections.emptyList(), Collections.emptyMap());
+    @Nullable
+    private static Draft draft;
+    private static int batchDepth;
+    
+    private final int generation = GENERATIONS.incrementAndGet();
+    private final ConfigPack defaultPack;
+    private final List<MaterialsPack> packList;
+    private final Map<String, MaterialsPack> packs;
+    private final List<PartMaterial> materials;
+    private final Map<Identifier, PartMaterial> materialIndex;
+    private final Map<Modifier, List<ModifierIngredient>> modifierIngredients;
+    @Nullable
+    private volatile MaterialStatTable statTable;
+    @Nullable
+    private volatile ModifierIngredientIndex ingredientIndex;
+    @Nullable
+    private volatile MaterialIngredientIndex materialIngredientIndex;
+    
+    /**
+     * @param defaultPack the pack of materials with no origin, created by {@link PartMaterials#createDefaultPack()}
+     * @param packs       the other packs, packs must not be changed after they are passed here
+     */
+    public MaterialisationSnapshot(ConfigPack defaultPack, List<MaterialsPack> packs, Map<Modifier, List<ModifierIngredient>> modifierIngredients) {
+        this.defaultPack = defaultPack;
+        this.packList = ImmutableList.copyOf(packs);
+        Map<String, MaterialsPack> packMap = Maps.newLinkedHashMap();
+        packMap.put("default:default", defaultPack);
+        // Like filterPacks, the default pack and the first pack of an identifier win
+        for (MaterialsPack pack : packs)
+            packMap.putIfAbsent(pack.getIdentifier().toString(), pack);
+        this.packs = Collections.unmodifiableMap(packMap);
+        ImmutableList.Builder<PartMaterial> materials = ImmutableList.builder();
+        Map<Identifier, PartMaterial> materialIndex = Maps.newHashMap();
+        for (MaterialsPack pack : packMap.values())
+            pack.getKnownMaterials().forEach(material -> {
+                materials.add(material);
+                // Identifiers already default to the minecraft namespace, so lookups never need to normalise again
+                materialIndex.putIfAbsent(material.getIdentifier(), material);
+            });
+        this.materials = materials.build();
+        this.materialIndex = materialIndex;
+        ImmutableMap.Builder<Modifier, List<ModifierIngredient>> ingredients = ImmutableMap.builder();
+        for (Map.Entry<Modifier, List<ModifierIngredient>> entry : modifierIngredients.entrySet())
+            ingredients.put(entry.getKey(), ImmutableList.copyOf(entry.getValue()));
+        this.modifierIngredients = ingredients.build();
+    }
+    
+    public static MaterialisationSnapshot get() {
+        return current;
+    }
+    
+    public static synchronized void publish(MaterialisationSnapshot snapshot) {
+        commit();
+        current = snapshot;
+    }
+    
+    /**
+     * Publishes a snapshot derived from the current one, for changes made outside of a config load.
+     */
+    public static synchronized MaterialisationSnapshot update(UnaryOperator<MaterialisationSnapshot> operator) {
+        commit();
+        MaterialisationSnapshot snapshot = operator.apply(current);
+        current = snapshot;
+        return snapshot;
+    }
+    
+    /**
+     * Runs the registrations of the action and publishes them in a single snapshot once it returns. Registrations of
+     * other threads wait for the batch to end, readers keep seeing the previous snapshot until then.
+     */
+    public static synchronized void batch(Runnable action) {
+        batchDepth++;
+        try {
+            action.run();
+        } finally {
+            if (--batchDepth == 0)
+                commit();
+        }
+    }
+    
+    /**
+     * Adds a material to the default pack.
+     *
+     * @return the material previously registered with the same identifier, if any
+     */
+    @Nullable
+    static synchronized PartMaterial registerDefaultMaterial(PartMaterial material) {
+        PartMaterial previous = draft().defaultMaterials().put(material.getIdentifier().toString(), material);
+        commitOutsideBatch();
+        return previous;
+    }
+    
+    /**
+     * Adds a pack, replacing the pack with the same identifier if there is one.
+     *
+     * @return the pack replaced, if any
+     */
+    @Nullable
+    static synchronized MaterialsPack registerPack(MaterialsPack pack) {
+        List<MaterialsPack> packs = draft().packs();
+        MaterialsPack previous = null;
+        for (int i = 0; i < packs.size(); i++)
+            if (packs.get(i).getIdentifier().equals(pack.getIdentifier())) {
+                previous = packs.set(i, pack);
+                break;
+            }
+        if (previous == null)
+            packs.add(pack);
+        commitOutsideBatch();
+        return previous;
+    }
+    
+    /**
+     * Adds an ingredient to the ingredients of a modifier.
+     */
+    public static synchronized void registerModifierIngredient(Modifier modifier, ModifierIngredient ingredient) {
+        draft().modifierIngredients().computeIfAbsent(modifier, m -> Lists.newArrayList()).add(ingredient);
+        commitOutsideBatch();
+    }
+    
+    private static Draft draft() {
+        if (draft == null)
+            draft = new Draft(current);
+        return draft;
+    }
+    
+    private static void commitOutsideBatch() {
+        if (batchDepth == 0)
+            commit();
+    }
+    
+    private static void commit() {
+        if (draft == null)
+            return;
+        current = draft.build();
+        draft = null;
+    }
+    
+    /**
+     * The registrations of a batch, copied from the current snapshot on the first registration only.
+     */
+    private static final class Draft {
+        private final MaterialisationSnapshot base;
+        @Nullable
+        private Map<String, PartMaterial> defaultMaterials;
+        @Nullable
+        private List<MaterialsPack> packs;
+        @Nullable
+        private Map<Modifier, List<ModifierIngredient>> modifierIngredients;
+        
+        private Draft(MaterialisationSnapshot base) {
+            this.base = base;
+        }
+        
+        private Map<String, PartMaterial> defaultMaterials() {
+            if (defaultMaterials == null)
+                defaultMaterials = Maps.newLinkedHashMap(base.defaultPack.getKnownMaterialMap());
+            return defaultMaterials;
+        }
+        
+        private List<MaterialsPack> packs() {
+            if (packs == null)
+                packs = Lists.newArrayList(base.packList);
+            return packs;
+        }
+        
+        private Map<Modifier, List<ModifierIngredient>> modifierIngredients() {
+            if (modifierIngredients == null) {
+                modifierIngredients = Maps.newHashMap();
+                for (Map.Entry<Modifier, List<ModifierIngredient>> entry : base.modifierIngredients.entrySet())
+                    modifierIngredients.put(entry.getKey(), Lists.newArrayList(entry.getValue()));
+            }
+            return modifierIngredients;
+        }
+        
+        private MaterialisationSnapshot build() {
+            ConfigPack defaultPack = base.defaultPack;
+            if (defaultMaterials != null) {
+                // Published packs are never changed, so the default pack is copied once for every batch
+                defaultPack = new ConfigPack(base.defaultPack.getConfigPackInfo(), defaultMaterials);
+                defaultPack.getOverrides().set(base.defaultPack.getOverrides().get());
+                defaultPack.getModifiers().set(base.defaultPack.getModifiers().get());
+            }
+            return new MaterialisationSnapshot(defaultPack, packs == null ? base.packList : packs,
+                    modifierIngredients == null ? base.modifierIngredients : modifierIngredients);
+        }
+    }
+    
+    public MaterialisationSnapshot withPacks(ConfigPack defaultPack, List<MaterialsPack> packs) {
+        return new MaterialisationSnapshot(defaultPack, packs, modifierIngredients);
+    }
+    
+    public MaterialisationSnapshot withModifierIngredients(Map<Modifier, List<ModifierIngredient>> modifierIngredients) {
+        return new MaterialisationSnapshot(defaultPack, packList, modifierIngredients);
+    }
+    
+    /**
+     * @return a number unique to this snapshot, newer snapshots have higher generations
+     */
+    public int getGeneration() {
+        return generation;
+    }
+    
+    /**
+     * @return the default pack of this snapshot, which must not be changed
+     */
+    public ConfigPack getDefaultPack() {
+        return defaultPack;
+    }
+    
+    /**
+     * @return the packs besides the default pack
+     */
+    public List<MaterialsPack> getPackList() {
+        return packList;
+    }
+    
+    /**
+     * @return every pack by identifier, starting with the default pack
+     */
+    public Map<String, MaterialsPack> getPacks() {
+        return packs;
+    }
+    
+    public List<PartMaterial> getMaterials() {
+        return materials;
+    }
+    
+    @Nullable
+    public PartMaterial getMaterial(Identifier identifier) {
+        return materialIndex.get(identifier);
+    }
+    
+    public Map<Modifier, List<ModifierIngredient>> getModifierIngredients() {
+        return modifierIngredients;
+    }
+    
+    public List<ModifierIngredient> getModifierIngredients(Modifier modifier) {
+        return modifierIngredients.getOrDefault(modifier, Collections.emptyList());
+    }
+    
+    /**
+     * @return the modifier ingredients by item, built on first use and again whenever the item tags change
+     */
+    public ModifierIngredientIndex getIngredientIndex() {
+        TagContainer<Item> tags = ItemTags.getContainer();
+        ModifierIngredientIndex index = ingredientIndex;
+        if (index == null || !index.isBuiltFrom(tags))
+            ingredientIndex = index = new ModifierIngredientIndex(modifierIngredients, tags);
+        return index;
+    }
+    
+    /**
+     * @return the material ingredients by item, built on first use and again whenever the item tags change
+     */
+    public MaterialIngredientIndex getMaterialIngredientIndex() {
+        TagContainer<Item> tags = ItemTags.getContainer();
+        MaterialIngredientIndex index = materialIngredientIndex;
+        if (index == null || !index.isBuiltFrom(tags))
+            materialIngredientIndex = index = new MaterialIngredientIndex(materials, tags);
+        return index;
+    }
+    
+    /**
+     * @return the stats of every material of this snapshot, built on first use
+     */
+    public MaterialStatTable getStatTable() {
+        MaterialStatTable table = statTable;
+        if (table == null)
+            statTable = table = new MaterialStatTable(generation, materials.toArray(new PartMaterial[0]));
+        return table;
+    }
+    
+}
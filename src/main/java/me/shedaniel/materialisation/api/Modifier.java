@@ -11,6 +11,7 @@ import javax.annotation.Nullable;
 import java.util.*;
 import java.util.function.BiFunction;
 import java.util.function.Function;
+import java.util.function.IntUnaryOperator;
 import java.util.function.Supplier;
 
 public interface Modifier {
@@ -83,17 +84,25 @@ public interface Modifier {
         return null;
     }
     
+    /**
+     * An effect of a modifier that only depends on the level, these are compiled into lookup tables.
+     */
+    @FunctionalInterface
+    interface LevelFloatFunction {
+        float apply(int level);
+    }
+    
     class ModifierImpl implements Modifier {
-        private final BiFunction<ItemStack, Integer, Integer> durabilityCost;
+        private final ModifierEffect.OfInt durabilityCost;
         private final Supplier<ImmutableList<ToolType>> applicableToolTypes;
         private final Function<ToolType, Integer> maximumLevel;
-        private final BiFunction<ItemStack, Integer, Integer> extraMiningSpeed;
-        private final BiFunction<ItemStack, Integer, Integer> extraAttackDamage;
-        private final BiFunction<ItemStack, Integer, Integer> extraMiningLevel;
-        private final BiFunction<ItemStack, Integer, Integer> extraEnchantability;
-        private final BiFunction<ItemStack, Integer, Float> durabilityMultiplier;
-        private final BiFunction<ItemStack, Integer, Float> miningSpeedMultiplier;
-        private final BiFunction<ItemStack, Integer, Float> attackDamageMultiplier;
+        private final ModifierEffect.OfInt extraMiningSpeed;
+        private final ModifierEffect.OfInt extraAttackDamage;
+        private final ModifierEffect.OfInt extraMiningLevel;
+        private final ModifierEffect.OfInt extraEnchantability;
+        private final ModifierEffect.OfFloat durabilityMultiplier;
+        private final ModifierEffect.OfFloat miningSpeedMultiplier;
+        private final ModifierEffect.OfFloat attackDamageMultiplier;
         private final Function<ToolType, Identifier> modelIdentifier;
         @Nullable
         private final Function<Integer, List<Text>> description;
@@ -101,16 +110,16 @@ public interface Modifier {
         private final Pair<Integer, Integer> graphicalDescriptionRange;
         
         private ModifierImpl(
-                BiFunction<ItemStack, Integer, Integer> durabilityCost,
+                ModifierEffect.OfInt durabilityCost,
                 Supplier<ImmutableList<ToolType>> applicableToolTypes,
                 Function<ToolType, Integer> maximumLevel,
-                BiFunction<ItemStack, Integer, Integer> extraMiningSpeed,
-                BiFunction<ItemStack, Integer, Integer> extraAttackDamage,
-                BiFunction<ItemStack, Integer, Integer> extraMiningLevel,
-                BiFunction<ItemStack, Integer, Integer> extraEnchantability,
-                BiFunction<ItemStack, Integer, Float> durabilityMultiplier,
-                BiFunction<ItemStack, Integer, Float> miningSpeedMultiplier,
-                BiFunction<ItemStack, Integer, Float> attackDamageMultiplier,
+                ModifierEffect.OfInt extraMiningSpeed,
+                ModifierEffect.OfInt extraAttackDamage,
+                ModifierEffect.OfInt extraMiningLevel,
+                ModifierEffect.OfInt extraEnchantability,
+                ModifierEffect.OfFloat durabilityMultiplier,
+                ModifierEffect.OfFloat miningSpeedMultiplier,
+                ModifierEffect.OfFloat attackDamageMultiplier,
                 @Nullable Function<Integer, List<Text>> description,
                 @Nullable Pair<Integer, Integer> graphicalDescriptionRange,
                 Function<ToolType, Identifier> modelIdentifier
@@ -131,16 +140,16 @@ public interface Modifier {
         }
         
         private static Modifier create(
-                BiFunction<ItemStack, Integer, Integer> durabilityCost,
+                ModifierEffect.OfInt durabilityCost,
                 Supplier<ImmutableList<ToolType>> applicableToolTypes,
                 Function<ToolType, Integer> maximumLevel,
-                BiFunction<ItemStack, Integer, Integer> extraMiningSpeed,
-                BiFunction<ItemStack, Integer, Integer> extraAttackDamage,
-                BiFunction<ItemStack, Integer, Integer> extraMiningLevel,
-                BiFunction<ItemStack, Integer, Integer> extraEnchantability,
-                BiFunction<ItemStack, Integer, Float> durabilityMultiplier,
-                BiFunction<ItemStack, Integer, Float> miningSpeedMultiplier,
-                BiFunction<ItemStack, Integer, Float> attackDamageMultiplier,
+                ModifierEffect.OfInt extraMiningSpeed,
+                ModifierEffect.OfInt extraAttackDamage,
+                ModifierEffect.OfInt extraMiningLevel,
+                ModifierEffect.OfInt extraEnchantability,
+                ModifierEffect.OfFloat durabilityMultiplier,
+                ModifierEffect.OfFloat miningSpeedMultiplier,
+                ModifierEffect.OfFloat attackDamageMultiplier,
                 @Nullable Function<Integer, List<Text>> description,
                 @Nullable Pair<Integer, Integer> graphicalDescriptionRange,
                 Function<ToolType, Identifier> modelIdentifier
@@ -162,6 +171,26 @@ public interface Modifier {
             );
         }
         
+        /**
+         * Compiles the effects that only depend on the level into lookup tables, called by
+         * {@link me.shedaniel.materialisation.modifiers.Modifiers#compileModifiers()} once the modifiers are registered.
+         * Until then effects are evaluated without the tables.
+         */
+        public void compile() {
+            int maximumLevel = 0;
+            for (ToolType type : ToolType.values())
+                maximumLevel = Math.max(maximumLevel, this.maximumLevel.apply(type));
+            maximumLevel = Math.min(maximumLevel, ModifierEffect.MAXIMUM_COMPILED_LEVEL);
+            durabilityCost.compile(maximumLevel);
+            extraMiningSpeed.compile(maximumLevel);
+            extraAttackDamage.compile(maximumLevel);
+            extraMiningLevel.compile(maximumLevel);
+            extraEnchantability.compile(maximumLevel);
+            durabilityMultiplier.compile(maximumLevel);
+            miningSpeedMultiplier.compile(maximumLevel);
+            attackDamageMultiplier.compile(maximumLevel);
+        }
+        
         @Override
         public List<Text> getModifierDescription(int level) {
             if (description != null) {
@@ -240,16 +269,16 @@ public interface Modifier {
     }
     
     class Builder {
-        private BiFunction<ItemStack, Integer, Integer> durabilityCost = (tool, level) -> 0;
+        private ModifierEffect.OfInt durabilityCost = ModifierEffect.OfInt.constant(0);
         private Supplier<ImmutableList<ToolType>> applicableToolTypes = ImmutableList::of;
         private Function<ToolType, Integer> maximumLevel = (type) -> 0;
-        private BiFunction<ItemStack, Integer, Integer> extraMiningSpeed = (tool, level) -> 0;
-        private BiFunction<ItemStack, Integer, Integer> extraAttackDamage = (tool, level) -> 0;
-        private BiFunction<ItemStack, Integer, Integer> extraMiningLevel = (tool, level) -> 0;
-        private BiFunction<ItemStack, Integer, Integer> extraEnchantability = (tool, level) -> 0;
-        private BiFunction<ItemStack, Integer, Float> durabilityMultiplier = (tool, level) -> 1f;
-        private BiFunction<ItemStack, Integer, Float> miningSpeedMultiplier = (tool, level) -> 1f;
-        private BiFunction<ItemStack, Integer, Float> attackDamageMultiplier = (tool, level) -> 1f;
+        private ModifierEffect.OfInt extraMiningSpeed = ModifierEffect.OfInt.constant(0);
+        private ModifierEffect.OfInt extraAttackDamage = ModifierEffect.OfInt.constant(0);
+        private ModifierEffect.OfInt extraMiningLevel = ModifierEffect.OfInt.constant(0);
+        private ModifierEffect.OfInt extraEnchantability = ModifierEffect.OfInt.constant(0);
+        private ModifierEffect.OfFloat durabilityMultiplier = ModifierEffect.OfFloat.constant(1f);
+        private ModifierEffect.OfFloat miningSpeedMultiplier = ModifierEffect.OfFloat.constant(1f);
+        private ModifierEffect.OfFloat attackDamageMultiplier = ModifierEffect.OfFloat.constant(1f);
         private Map<ToolType, Identifier> modelIdentifiers = new HashMap<>();
         @Nullable
         private Function<Integer, List<Text>> description;
@@ -293,7 +322,7 @@ public interface Modifier {
         }
         
         public Builder durabilityCost(BiFunction<ItemStack, Integer, Integer> durabilityCost) {
-            this.durabilityCost = durabilityCost;
+            this.durabilityCost = new ModifierEffect.OfInt(durabilityCost);
             return this;
         }
         
@@ -308,42 +337,42 @@ public interface Modifier {
         }
         
         public Builder extraMiningSpeed(BiFunction<ItemStack, Integer, Integer> extraMiningSpeed) {
-            this.extraMiningSpeed = extraMiningSpeed;
+            this.extraMiningSpeed = new ModifierEffect.OfInt(extraMiningSpeed);
             return this;
         }
         
         public Builder extraAttackDamage(BiFunction<ItemStack, Integer, Integer> extraAttackDamage) {
-            this.extraAttackDamage = extraAttackDamage;
+            this.extraAttackDamage = new ModifierEffect.OfInt(extraAttackDamage);
             return this;
         }
         
         public Builder extraMiningLevel(BiFunction<ItemStack, Integer, Integer> extraMiningLevel) {
-            this.extraMiningLevel = extraMiningLevel;
+            this.extraMiningLevel = new ModifierEffect.OfInt(extraMiningLevel);
             return this;
         }
         
         public Builder extraEnchantability(BiFunction<ItemStack, Integer, Integer> extraEnchantability) {
-            this.extraEnchantability = extraEnchantability;
+            this.extraEnchantability = new ModifierEffect.OfInt(extraEnchantability);
             return this;
         }
         
         public Builder durabilityMultiplier(BiFunction<ItemStack, Integer, Float> durabilityMultiplier) {
-            this.durabilityMultiplier = durabilityMultiplier;
+            this.durabilityMultiplier = new ModifierEffect.OfFloat(durabilityMultiplier);
             return this;
         }
         
         public Builder miningSpeedMultiplier(BiFunction<ItemStack, Integer, Float> miningSpeedMultiplier) {
-            this.miningSpeedMultiplier = miningSpeedMultiplier;
+            this.miningSpeedMultiplier = new ModifierEffect.OfFloat(miningSpeedMultiplier);
             return this;
         }
         
         public Builder attackDamageMultiplier(BiFunction<ItemStack, Integer, Float> attackDamageMultiplier) {
-            this.attackDamageMultiplier = attackDamageMultiplier;
+            this.attackDamageMultiplier = new ModifierEffect.OfFloat(attackDamageMultiplier);
             return this;
         }
         
         public Builder durabilityCost(int durabilityCost) {
-            this.durabilityCost = (tool, level) -> durabilityCost;
+            this.durabilityCost = ModifierEffect.OfInt.constant(durabilityCost);
             return this;
         }
         
@@ -358,37 +387,77 @@ public interface Modifier {
         }
         
         public Builder extraMiningSpeed(int extraMiningSpeed) {
-            this.extraMiningSpeed = (tool, level) -> extraMiningSpeed;
+            this.extraMiningSpeed = ModifierEffect.OfInt.constant(extraMiningSpeed);
             return this;
         }
         
         public Builder extraAttackDamage(int extraAttackDamage) {
-            this.extraAttackDamage = (tool, level) -> extraAttackDamage;
+            this.extraAttackDamage = ModifierEffect.OfInt.constant(extraAttackDamage);
             return this;
         }
         
         public Builder extraMiningLevel(int extraMiningLevel) {
-            this.extraMiningLevel = (tool, level) -> extraMiningLevel;
+            this.extraMiningLevel = ModifierEffect.OfInt.constant(extraMiningLevel);
             return this;
         }
         
         public Builder extraEnchantability(int extraEnchantability) {
-            this.extraEnchantability = (tool, level) -> extraEnchantability;
+            this.extraEnchantability = ModifierEffect.OfInt.constant(extraEnchantability);
             return this;
         }
         
         public Builder durabilityMultiplier(float durabilityMultiplier) {
-            this.durabilityMultiplier = (tool, level) -> durabilityMultiplier;
+            this.durabilityMultiplier = ModifierEffect.OfFloat.constant(durabilityMultiplier);
             return this;
         }
         
         public Builder miningSpeedMultiplier(float miningSpeedMultiplier) {
-            this.miningSpeedMultiplier = (tool, level) -> miningSpeedMultiplier;
+            this.miningSpeedMultiplier = ModifierEffect.OfFloat.constant(miningSpeedMultiplier);
             return this;
         }
         
         public Builder attackDamageMultiplier(float attackDamageMultiplier) {
-            this.attackDamageMultiplier = (tool, level) -> attackDamageMultiplier;
+            this.attackDamageMultiplier = ModifierEffect.OfFloat.constant(attackDamageMultiplier);
+            return this;
+        }
+        
+        public Builder durabilityCostByLevel(IntUnaryOperator durabilityCost) {
+            this.durabilityCost = new ModifierEffect.OfInt(durabilityCost);
+            return this;
+        }
+        
+        public Builder extraMiningSpeedByLevel(IntUnaryOperator extraMiningSpeed) {
+            this.extraMiningSpeed = new ModifierEffect.OfInt(extraMiningSpeed);
+            return this;
+        }
+        
+        public Builder extraAttackDamageByLevel(IntUnaryOperator extraAttackDamage) {
+            this.extraAttackDamage = new ModifierEffect.OfInt(extraAttackDamage);
+            return this;
+        }
+        
+        public Builder extraMiningLevelByLevel(IntUnaryOperator extraMiningLevel) {
+            this.extraMiningLevel = new ModifierEffect.OfInt(extraMiningLevel);
+            return this;
+        }
+        
+        public Builder extraEnchantabilityByLevel(IntUnaryOperator extraEnchantability) {
+            this.extraEnchantability = new ModifierEffect.OfInt(extraEnchantability);
+            return this;
+        }
+        
+        public Builder durabilityMultiplierByLevel(LevelFloatFunction durabilityMultiplier) {
+            this.durabilityMultiplier = new ModifierEffect.OfFloat(durabilityMultiplier);
+            return this;
+        }
+        
+        public Builder miningSpeedMultiplierByLevel(LevelFloatFunction miningSpeedMultiplier) {
+            this.miningSpeedMultiplier = new ModifierEffect.OfFloat(miningSpeedMultiplier);
+            return this;
+        }
+        
+        public Builder attackDamageMultiplierByLevel(LevelFloatFunction attackDamageMultiplier) {
+            this.attackDamageMultiplier = new ModifierEffect.OfFloat(attackDamageMultiplier);
             return this;
         }
         
@@ -0,0 +1,98 @@
+package me.shedaniel.materialisation.api;
+
+import net.minecraft.item.ItemStack;
+
+import javax.annotation.Nullable;
+import java.util.function.BiFunction;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * A numeric effect of a {@link Modifier.ModifierImpl}, which either depends on the level alone or on the tool as well.
+ * <p>
+ * Level-only effects are compiled into lookup tables up to the maximum level when the modifiers are registered,
+ * tool dependent effects are always evaluated.
+ */
+final class ModifierEffect {
+    
+    static final int MAXIMUM_COMPILED_LEVEL = 255;
+    
+    private ModifierEffect() {
+    }
+    
+    static final class OfInt {
+        @Nullable
+        private final IntUnaryOperator byLevel;
+        @Nullable
+        private final BiFunction<ItemStack, Integer, Integer> byTool;
+        private volatile int[] table = new int[0];
+        
+        OfInt(IntUnaryOperator byLevel) {
+            this.byLevel = byLevel;
+            this.byTool = null;
+        }
+        
+        OfInt(BiFunction<ItemStack, Integer, Integer> byTool) {
+            this.byLevel = null;
+            this.byTool = byTool;
+        }
+        
+        static OfInt constant(int value) {
+            return new OfInt(level -> value);
+        }
+        
+        int apply(ItemStack tool, int level) {
+            int[] table = this.table;
+            if (level >= 0 && level < table.length)
+                return table[level];
+            return byLevel != null ? byLevel.applyAsInt(level) : byTool.apply(tool, level);
+        }
+        
+        void compile(int maximumLevel) {
+            if (byLevel == null)
+                return;
+            int[] table = new int[maximumLevel + 1];
+            for (int level = 0; level <= maximumLevel; level++)
+                table[level] = byLevel.applyAsInt(level);
+            this.table = table;
+        }
+    }
+    
+    static final class OfFloat {
+        @Nullable
+        private final Modifier.LevelFloatFunction byLevel;
+        @Nullable
+        private final BiFunction<ItemStack, Integer, Float> byTool;
+        private volatile float[] table = new float[0];
+        
+        OfFloat(Modifier.LevelFloatFunction byLevel) {
+            this.byLevel = byLevel;
+            this.byTool = null;
+        }
+        
+        OfFloat(BiFunction<ItemStack, Integer, Float> byTool) {
+            this.byLevel = null;
+            this.byTool = byTool;
+        }
+        
+        static OfFloat constant(float value) {
+            return new OfFloat(level -> value);
+        }
+        
+        float apply(ItemStack tool, int level) {
+            float[] table = this.table;
+            if (level >= 0 && level < table.length)
+                return table[level];
+            return byLevel != null ? byLevel.apply(level) : byTool.apply(tool, level);
+        }
+        
+        void compile(int maximumLevel) {
+            if (byLevel == null)
+                return;
+            float[] table = new float[maximumLevel + 1];
+            for (int level = 0; level <= maximumLevel; level++)
+                table[level] = byLevel.apply(level);
+            this.table = table;
+        }
+    }
+    
+}
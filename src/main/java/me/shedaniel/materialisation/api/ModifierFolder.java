@@ -0,0 +1,84 @@
+package me.shedaniel.materialisation.api;
+
+import net.minecraft.item.ItemStack;
+
+/**
+ * Folds the modifiers of a tool into its base stats, visiting each modifier once.
+ * <p>
+ * Multipliers are applied in modifier order while folding, additive bonuses are summed and added at the end, which
+ * gives the same results as applying all multipliers first and all bonuses afterwards. The caps are applied last.
+ */
+public final class ModifierFolder {
+    
+    public static final float MAXIMUM_BREAKING_SPEED = 50;
+    public static final float MAXIMUM_ATTACK_DAMAGE = 100;
+    public static final int MAXIMUM_MINING_LEVEL = 10;
+    public static final int MAXIMUM_ENCHANTABILITY = 100;
+    
+    private final int baseMaxDurability;
+    private final float baseBreakingSpeed;
+    private final int baseMiningLevel;
+    private final int baseEnchantability;
+    private final float baseAttackDamage;
+    private int maxDurability;
+    private int durabilityCost;
+    private float breakingSpeed;
+    private int extraBreakingSpeed;
+    private int extraMiningLevel;
+    private int extraEnchantability;
+    private float attackDamage;
+    private int extraAttackDamage;
+    
+    public ModifierFolder(int baseMaxDurability, float baseBreakingSpeed, int baseMiningLevel, int baseEnchantability, float baseAttackDamage) {
+        this.baseMaxDurability = baseMaxDurability;
+        this.baseBreakingSpeed = baseBreakingSpeed;
+        this.baseMiningLevel = baseMiningLevel;
+        this.baseEnchantability = baseEnchantability;
+        this.baseAttackDamage = baseAttackDamage;
+        this.maxDurability = baseMaxDurability;
+        this.breakingSpeed = baseBreakingSpeed;
+        this.attackDamage = baseAttackDamage;
+    }
+    
+    public ModifierFolder fold(ItemStack stack, ModifierLevels modifiers) {
+        for (int i = 0; i < modifiers.size(); i++) {
+            Modifier modifier = modifiers.getModifier(i);
+            int level = modifiers.getLevel(i);
+            maxDurability *= modifier.getDurabilityMultiplier(stack, level);
+            durabilityCost += modifier.getDurabilityCost(stack, level);
+            breakingSpeed *= modifier.getMiningSpeedMultiplier(stack, level);
+            extraBreakingSpeed += modifier.getExtraMiningSpeed(stack, level);
+            extraMiningLevel += modifier.getExtraMiningLevel(stack, level);
+            extraEnchantability += modifier.getExtraEnchantability(stack, level);
+            attackDamage *= modifier.getAttackDamageMultiplier(stack, level);
+            extraAttackDamage += modifier.getExtraAttackDamage(stack, level);
+        }
+        return this;
+    }
+    
+    public int getMaxDurability() {
+        return maxDurability - durabilityCost;
+    }
+    
+    /**
+     * @return the folded breaking speed, or 0 if the base breaking speed is not positive
+     */
+    public float getBreakingSpeed() {
+        if (baseBreakingSpeed <= 0)
+            return 0;
+        return Math.min(breakingSpeed + extraBreakingSpeed, MAXIMUM_BREAKING_SPEED);
+    }
+    
+    public int getMiningLevel() {
+        return baseMiningLevel + Math.min(extraMiningLevel, MAXIMUM_MINING_LEVEL - baseMiningLevel);
+    }
+    
+    public int getEnchantability() {
+        return baseEnchantability + Math.min(extraEnchantability, MAXIMUM_ENCHANTABILITY - baseEnchantability);
+    }
+    
+    public float getAttackDamage() {
+        return Math.min(attackDamage + extraAttackDamage, MAXIMUM_ATTACK_DAMAGE);
+    }
+    
+}
@@ -0,0 +1,114 @@
+package me.shedaniel.materialisation.api;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Maps;
+import me.shedaniel.materialisation.Materialisation;
+import me.shedaniel.materialisation.utils.ItemTagCache;
+import net.minecraft.item.Item;
+import net.minecraft.item.Items;
+import net.minecraft.tag.TagContainer;
+import net.minecraft.util.Identifier;
+import net.minecraft.util.registry.Registry;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The modifier ingredients of a {@link MaterialisationSnapshot} by item, with tags expanded.
+ * <p>
+ * Entries of an item keep the order a scan over every modifier would find them in, so the first matching entry is the
+ * same one the scan would pick. The index belongs to the item tags it was built from and is rebuilt when they reload.
+ */
+public final class ModifierIngredientIndex {
+    
+    private final TagContainer<Item> tags;
+    private final Map<Item, List<Entry>> entries;
+    
+    ModifierIngredientIndex(Map<Modifier, List<ModifierIngredient>> modifierIngredients, TagContainer<Item> tags) {
+        this.tags = tags;
+        Map<Item, ImmutableList.Builder<Entry>> builders = Maps.newHashMap();
+        for (Modifier modifier : Materialisation.MODIFIERS) {
+            List<ModifierIngredient> ingredients = modifierIngredients.get(modifier);
+            if (ingredients == null)
+                continue;
+            for (ModifierIngredient ingredient : ingredients)
+                for (Map.Entry<Integer, List<BetterIngredient>> level : ingredient.getIngredients().entrySet())
+                    for (BetterIngredient betterIngredient : level.getValue()) {
+                        Entry entry = new Entry(modifier, level.getKey(), ingredient, betterIngredient);
+                        for (Item item : getItems(betterIngredient))
+                            builders.computeIfAbsent(item, i -> ImmutableList.builder()).add(entry);
+                    }
+        }
+        Map<Item, List<Entry>> entries = Maps.newHashMapWithExpectedSize(builders.size());
+        builders.forEach((item, builder) -> entries.put(item, builder.build()));
+        this.entries = entries;
+    }
+    
+    static List<Item> getItems(BetterIngredient ingredient) {
+        Identifier identifier = Identifier.tryParse(ingredient.content);
+        if (identifier == null)
+            return Collections.emptyList();
+        if (ingredient.type == BetterIngredient.Type.ITEM) {
+            Item item = Registry.ITEM.get(identifier);
+            return item == Items.AIR ? Collections.emptyList() : Collections.singletonList(item);
+        }
+        return ItemTagCache.getItems(identifier);
+    }
+    
+    boolean isBuiltFrom(TagContainer<Item> tags) {
+        return this.tags == tags;
+    }
+    
+    /**
+     * @return every ingredient entry that accepts the item, ignoring the count
+     */
+    public List<Entry> get(Item item) {
+        return entries.getOrDefault(item, Collections.emptyList());
+    }
+    
+    public static final class Entry {
+        private final Modifier modifier;
+        private final int level;
+        private final ModifierIngredient ingredient;
+        private final BetterIngredient betterIngredient;
+        
+        private Entry(Modifier modifier, int level, ModifierIngredient ingredient, BetterIngredient betterIngredient) {
+            this.modifier = modifier;
+            this.level = level;
+            this.ingredient = ingredient;
+            this.betterIngredient = betterIngredient;
+        }
+        
+        public Modifier getModifier() {
+            return modifier;
+        }
+        
+        /**
+         * @return the level this entry was registered for, -1 for the base ingredients
+         */
+        public int getLevel() {
+            return level;
+        }
+        
+        public ModifierIngredient getIngredient() {
+            return ingredient;
+        }
+        
+        public BetterIngredient getBetterIngredient() {
+            return betterIngredient;
+        }
+        
+        /**
+         * Matches {@link ModifierIngredient#getIngredient(int)}, base ingredients only apply to levels without their own.
+         */
+        public boolean appliesTo(int level) {
+            return this.level == level || (this.level == -1 && !ingredient.getIngredients().containsKey(level));
+        }
+        
+        public int getCount() {
+            return betterIngredient.count;
+        }
+    }
+    
+}
@@ -0,0 +1,120 @@
+package me.shedaniel.materialisation.api;
+
+import me.shedaniel.materialisation.Materialisation;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.util.Identifier;
+
+import javax.annotation.Nullable;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.ObjIntConsumer;
+
+/**
+ * An immutable view of the modifier levels of a tool, without boxing.
+ * <p>
+ * Entries can be iterated by index with {@link #size()}, {@link #getModifier(int)} and {@link #getLevel(int)},
+ * and levels can be looked up by the modifier's raw id in {@link Materialisation#MODIFIERS}.
+ * Modifiers are registered once and kept across config reloads, so raw ids stay the same for the whole session.
+ */
+public final class ModifierLevels {
+    
+    public static final ModifierLevels EMPTY = new ModifierLevels(new Modifier[0], new int[0], new int[0]);
+    
+    private final Modifier[] modifiers;
+    private final int[] levels;
+    private final int[] levelsByRawId;
+    @Nullable
+    private Map<Modifier, Integer> map;
+    
+    private ModifierLevels(Modifier[] modifiers, int[] levels, int[] levelsByRawId) {
+        this.modifiers = modifiers;
+        this.levels = levels;
+        this.levelsByRawId = levelsByRawId;
+    }
+    
+    /**
+     * Reads the modifiers compound of a tool, skipping unknown modifiers and levels below 1.
+     */
+    public static ModifierLevels read(@Nullable CompoundTag tag) {
+        if (tag == null || !tag.contains("modifiers"))
+            return EMPTY;
+        CompoundTag modifiersTag = tag.getCompound("modifiers");
+        Modifier[] modifiers = new Modifier[modifiersTag.getSize()];
+        int[] levels = new int[modifiers.length];
+        int size = 0;
+        int maxRawId = -1;
+        for (String key : modifiersTag.getKeys()) {
+            int level = modifiersTag.getInt(key);
+            if (level <= 0)
+                continue;
+            Identifier identifier = Identifier.tryParse(key);
+            Modifier modifier = identifier == null ? null : Materialisation.MODIFIERS.get(identifier);
+            if (modifier == null)
+                continue;
+            modifiers[size] = modifier;
+            levels[size++] = level;
+            maxRawId = Math.max(maxRawId, Materialisation.MODIFIERS.getRawId(modifier));
+        }
+        if (size == 0)
+            return EMPTY;
+        int[] levelsByRawId = new int[maxRawId + 1];
+        for (int i = 0; i < size; i++) {
+            int rawId = Materialisation.MODIFIERS.getRawId(modifiers[i]);
+            if (rawId >= 0)
+                levelsByRawId[rawId] = levels[i];
+        }
+        if (size != modifiers.length) {
+            Modifier[] trimmedModifiers = new Modifier[size];
+            int[] trimmedLevels = new int[size];
+            System.arraycopy(modifiers, 0, trimmedModifiers, 0, size);
+            System.arraycopy(levels, 0, trimmedLevels, 0, size);
+            return new ModifierLevels(trimmedModifiers, trimmedLevels, levelsByRawId);
+        }
+        return new ModifierLevels(modifiers, levels, levelsByRawId);
+    }
+    
+    public int size() {
+        return modifiers.length;
+    }
+    
+    public boolean isEmpty() {
+        return modifiers.length == 0;
+    }
+    
+    public Modifier getModifier(int index) {
+        return modifiers[index];
+    }
+    
+    public int getLevel(int index) {
+        return levels[index];
+    }
+    
+    public int getLevelByRawId(int rawId) {
+        return rawId >= 0 && rawId < levelsByRawId.length ? levelsByRawId[rawId] : 0;
+    }
+    
+    public int getLevel(Modifier modifier) {
+        return getLevelByRawId(Materialisation.MODIFIERS.getRawId(modifier));
+    }
+    
+    public void forEach(ObjIntConsumer<Modifier> consumer) {
+        for (int i = 0; i < modifiers.length; i++)
+            consumer.accept(modifiers[i], levels[i]);
+    }
+    
+    /**
+     * @return an unmodifiable map of the same entries, created once per view
+     */
+    public Map<Modifier, Integer> asMap() {
+        Map<Modifier, Integer> map = this.map;
+        if (map == null) {
+            Map<Modifier, Integer> linkedMap = new LinkedHashMap<>();
+            for (int i = 0; i < modifiers.length; i++)
+                linkedMap.put(modifiers[i], levels[i]);
+            this.map = map = Collections.unmodifiableMap(linkedMap);
+        }
+        return map;
+    }
+    
+}
@@ -6,62 +6,83 @@ import me.shedaniel.materialisation.config.ConfigPack;
 import me.shedaniel.materialisation.config.ConfigPackInfo;
 import net.minecraft.util.Identifier;
 
+import javax.annotation.Nullable;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 public class PartMaterials {
     
-    private static final Map<String, MaterialsPack> MATERIALS;
-    
-    static {
-        MATERIALS = Maps.newLinkedHashMap();
-        clearMaterials();
-    }
-    
     public static GeneratedMaterial getNewMaterial(String name) {
         return new GeneratedMaterial(new Identifier(name));
     }
     
     @Deprecated
     public static PartMaterial registerMaterial(PartMaterial material) {
-        return getDefaultPack().getKnownMaterialMap().put(material.getIdentifier().toString(), material);
+        return MaterialisationSnapshot.registerDefaultMaterial(material);
     }
     
+    /**
+     * @return the default pack of the current snapshot, its materials cannot be changed, use {@link #registerMaterial(PartMaterial)}
+     */
     public static ConfigPack getDefaultPack() {
-        return (ConfigPack) MATERIALS.get("default:default");
+        return MaterialisationSnapshot.get().getDefaultPack().asUnmodifiable();
     }
     
     public static MaterialsPack registerPack(MaterialsPack materialsPack) {
-        return MATERIALS.put(materialsPack.getIdentifier().toString(), materialsPack);
+        return MaterialisationSnapshot.registerPack(materialsPack);
+    }
+    
+    @Nullable
+    public static PartMaterial getMaterial(Identifier identifier) {
+        return MaterialisationSnapshot.get().getMaterial(identifier);
     }
     
     public static Stream<PartMaterial> getKnownMaterials() {
-        return getKnownMaterialList().stream();
+        return MaterialisationSnapshot.get().getMaterials().stream();
     }
     
     @Deprecated
     public static List<PartMaterial> getKnownMaterialList() {
-        List<PartMaterial> list = Lists.newArrayList();
-        MATERIALS.values().stream().map(MaterialsPack::getKnownMaterials).map(stream -> stream.collect(Collectors.toList())).forEach(list::addAll);
-        return list;
+        return Lists.newArrayList(MaterialisationSnapshot.get().getMaterials());
     }
     
+    /**
+     * @return an unmodifiable view of the packs of the current snapshot, use {@link #registerPack(MaterialsPack)} to add packs
+     */
     @Deprecated
     public static Map<String, MaterialsPack> getMaterialsMap() {
-        return MATERIALS;
+        return MaterialisationSnapshot.get().getPacks();
     }
     
     public static Stream<MaterialsPack> getMaterialPacks() {
-        return MATERIALS.values().stream();
+        return MaterialisationSnapshot.get().getPacks().values().stream();
+    }
+    
+    /**
+     * @return a counter that changes whenever the registered materials change
+     */
+    public static int getGeneration() {
+        return MaterialisationSnapshot.get().getGeneration();
     }
     
     public static void clearMaterials() {
-        MATERIALS.clear();
+        MaterialisationSnapshot.update(snapshot -> snapshot.withPacks(createDefaultPack(), Collections.emptyList()));
+    }
+    
+    public static ConfigPack createDefaultPack() {
         ConfigPackInfo packInfo = new ConfigPackInfo("Default Pack", "default:default", Collections.emptyList(), Collections.emptyList(), "0.1.0");
-        MATERIALS.put("default:default", new ConfigPack(packInfo.withDescription("The default material pack that materials with no origin goes to."), Maps.newLinkedHashMap()));
+        return new ConfigPack(packInfo.withDescription("The default material pack that materials with no origin goes to."), Maps.newLinkedHashMap());
+    }
+    
+    /**
+     * Replaces every registered pack at once, used to reload materials while the game is running.
+     *
+     * @param defaultPack the new default pack, created by {@link #createDefaultPack()}
+     */
+    public static void replacePacks(ConfigPack defaultPack, List<MaterialsPack> packs) {
+        MaterialisationSnapshot.update(snapshot -> snapshot.withPacks(defaultPack, packs));
     }
     
 }
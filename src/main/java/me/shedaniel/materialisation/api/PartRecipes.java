@@ -0,0 +1,131 @@
+package me.shedaniel.materialisation.api;
+
+import com.google.common.collect.Maps;
+import me.shedaniel.materialisation.Materialisation;
+import me.shedaniel.materialisation.MaterialisationUtils;
+import net.minecraft.item.Item;
+import net.minecraft.item.ItemStack;
+
+import javax.annotation.Nullable;
+import java.util.Map;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * The recipes of the materialising table and the material preparer, looked up by item instead of checked one by one.
+ * <p>
+ * Tools are assembled in the table from a head and a handle, in either slot order. Parts are made in the preparer from a
+ * pattern and enough of a material. Other mods can register their own tools and parts here.
+ */
+public final class PartRecipes {
+    
+    private static final Map<Item, Map<Item, ToolRecipe>> TOOLS = Maps.newConcurrentMap();
+    private static final Map<Item, PatternRecipe> PATTERNS = Maps.newConcurrentMap();
+    
+    static {
+        registerTool(Materialisation.PICKAXE_HEAD, Materialisation.HANDLE, MaterialisationUtils::createPickaxe);
+        registerTool(Materialisation.AXE_HEAD, Materialisation.HANDLE, MaterialisationUtils::createAxe);
+        registerTool(Materialisation.SHOVEL_HEAD, Materialisation.HANDLE, MaterialisationUtils::createShovel);
+        registerTool(Materialisation.SWORD_BLADE, Materialisation.HANDLE, MaterialisationUtils::createSword);
+        registerTool(Materialisation.MEGAAXE_HEAD, Materialisation.HANDLE, MaterialisationUtils::createMegaAxe);
+        registerTool(Materialisation.HAMMER_HEAD, Materialisation.HANDLE, MaterialisationUtils::createHammer);
+        registerPattern(Materialisation.PICKAXE_HEAD_PATTERN, 4, MaterialisationUtils::createPickaxeHead);
+        registerPattern(Materialisation.TOOL_HANDLE_PATTERN, 1, MaterialisationUtils::createToolHandle);
+        registerPattern(Materialisation.AXE_HEAD_PATTERN, 4, MaterialisationUtils::createAxeHead);
+        registerPattern(Materialisation.SHOVEL_HEAD_PATTERN, 4, MaterialisationUtils::createShovelHead);
+        registerPattern(Materialisation.SWORD_BLADE_PATTERN, 4, MaterialisationUtils::createSwordBlade);
+        registerPattern(Materialisation.HAMMER_HEAD_PATTERN, 16, MaterialisationUtils::createHammerHead);
+        registerPattern(Materialisation.MEGAAXE_HEAD_PATTERN, 64, MaterialisationUtils::createMegaAxeHead);
+    }
+    
+    private PartRecipes() {
+    }
+    
+    /**
+     * @param factory creates the tool from the handle material and the head material
+     */
+    public static ToolRecipe registerTool(Item head, Item handle, BiFunction<PartMaterial, PartMaterial, ItemStack> factory) {
+        ToolRecipe recipe = new ToolRecipe(head, handle, factory);
+        TOOLS.computeIfAbsent(head, item -> Maps.newConcurrentMap()).put(handle, recipe);
+        return recipe;
+    }
+    
+    /**
+     * @param cost    the amount of material the part takes, divided by the repair multiplier of the input
+     * @param factory creates the part from its material
+     */
+    public static PatternRecipe registerPattern(Item pattern, int cost, Function<PartMaterial, ItemStack> factory) {
+        PatternRecipe recipe = new PatternRecipe(pattern, cost, factory);
+        PATTERNS.put(pattern, recipe);
+        return recipe;
+    }
+    
+    /**
+     * @return the tool assembled from the two items, either of them can be the head
+     */
+    @Nullable
+    public static ToolRecipe getTool(Item first, Item second) {
+        ToolRecipe recipe = getToolByParts(first, second);
+        return recipe != null ? recipe : getToolByParts(second, first);
+    }
+    
+    @Nullable
+    private static ToolRecipe getToolByParts(Item head, Item handle) {
+        Map<Item, ToolRecipe> handles = TOOLS.get(head);
+        return handles == null ? null : handles.get(handle);
+    }
+    
+    @Nullable
+    public static PatternRecipe getPattern(Item pattern) {
+        return PATTERNS.get(pattern);
+    }
+    
+    public static final class ToolRecipe {
+        private final Item head;
+        private final Item handle;
+        private final BiFunction<PartMaterial, PartMaterial, ItemStack> factory;
+        
+        private ToolRecipe(Item head, Item handle, BiFunction<PartMaterial, PartMaterial, ItemStack> factory) {
+            this.head = head;
+            this.handle = handle;
+            this.factory = factory;
+        }
+        
+        public Item getHead() {
+            return head;
+        }
+        
+        public Item getHandle() {
+            return handle;
+        }
+        
+        public ItemStack create(PartMaterial handleMaterial, PartMaterial headMaterial) {
+            return factory.apply(handleMaterial, headMaterial);
+        }
+    }
+    
+    public static final class PatternRecipe {
+        private final Item pattern;
+        private final int cost;
+        private final Function<PartMaterial, ItemStack> factory;
+        
+        private PatternRecipe(Item pattern, int cost, Function<PartMaterial, ItemStack> factory) {
+            this.pattern = pattern;
+            this.cost = cost;
+            this.factory = factory;
+        }
+        
+        public Item getPattern() {
+            return pattern;
+        }
+        
+        public int getCost() {
+            return cost;
+        }
+        
+        public ItemStack create(PartMaterial material) {
+            return factory.apply(material);
+        }
+    }
+    
+}
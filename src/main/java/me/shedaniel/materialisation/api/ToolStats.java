@@ -0,0 +1,139 @@
+package me.shedaniel.materialisation.api;
+
+import com.google.common.collect.ImmutableMultimap;
+import com.google.common.collect.Multimap;
+import me.shedaniel.materialisation.MaterialisationUtils;
+import net.minecraft.entity.EquipmentSlot;
+import net.minecraft.entity.attribute.EntityAttribute;
+import net.minecraft.entity.attribute.EntityAttributeModifier;
+import net.minecraft.entity.attribute.EntityAttributes;
+
+import java.util.Map;
+
+/**
+ * An immutable snapshot of the stats of a materialised tool, computed once per distinct tool NBT.
+ */
+public final class ToolStats {
+    
+    public static final ToolStats EMPTY = new ToolStats(1, 1, 1, 0, 0, 0, 0, 0, 0, 0, 0, ModifierLevels.EMPTY);
+    
+    private final int durability;
+    private final int maxDurability;
+    private final int baseMaxDurability;
+    private final float breakingSpeed;
+    private final float baseBreakingSpeed;
+    private final int miningLevel;
+    private final int baseMiningLevel;
+    private final int enchantability;
+    private final int baseEnchantability;
+    private final float attackDamage;
+    private final float baseAttackDamage;
+    private final ModifierLevels modifiers;
+    // Indexed by slot ordinal, shared between snapshots that only differ in durability while the tool is not broken
+    private final Multimap<EntityAttribute, EntityAttributeModifier>[] attributeModifiers;
+    
+    public ToolStats(int durability, int maxDurability, int baseMaxDurability, float breakingSpeed, float baseBreakingSpeed, int miningLevel, int baseMiningLevel, int enchantability, int baseEnchantability, float attackDamage, float baseAttackDamage, ModifierLevels modifiers) {
+        this(durability, maxDurability, baseMaxDurability, breakingSpeed, baseBreakingSpeed, miningLevel, baseMiningLevel, enchantability, baseEnchantability, attackDamage, baseAttackDamage, modifiers, createAttributeModifiers());
+    }
+    
+    private ToolStats(int durability, int maxDurability, int baseMaxDurability, float breakingSpeed, float baseBreakingSpeed, int miningLevel, int baseMiningLevel, int enchantability, int baseEnchantability, float attackDamage, float baseAttackDamage, ModifierLevels modifiers, Multimap<EntityAttribute, EntityAttributeModifier>[] attributeModifiers) {
+        this.durability = durability;
+        this.maxDurability = maxDurability;
+        this.baseMaxDurability = baseMaxDurability;
+        this.breakingSpeed = breakingSpeed;
+        this.baseBreakingSpeed = baseBreakingSpeed;
+        this.miningLevel = miningLevel;
+        this.baseMiningLevel = baseMiningLevel;
+        this.enchantability = enchantability;
+        this.baseEnchantability = baseEnchantability;
+        this.attackDamage = attackDamage;
+        this.baseAttackDamage = baseAttackDamage;
+        this.modifiers = modifiers;
+        this.attributeModifiers = attributeModifiers;
+    }
+    
+    @SuppressWarnings("unchecked")
+    private static Multimap<EntityAttribute, EntityAttributeModifier>[] createAttributeModifiers() {
+        return new Multimap[EquipmentSlot.values().length];
+    }
+    
+    /**
+     * Durability is the only stat that changes while a tool is being used, so it is swapped without recomputing the rest.
+     */
+    public ToolStats withDurability(int durability) {
+        if (this.durability == durability)
+            return this;
+        Multimap<EntityAttribute, EntityAttributeModifier>[] attributeModifiers = (this.durability > 0) == (durability > 0) ? this.attributeModifiers : createAttributeModifiers();
+        return new ToolStats(durability, maxDurability, baseMaxDurability, breakingSpeed, baseBreakingSpeed, miningLevel, baseMiningLevel, enchantability, baseEnchantability, attackDamage, baseAttackDamage, modifiers, attributeModifiers);
+    }
+    
+    public int getDurability() {
+        return durability;
+    }
+    
+    public int getMaxDurability() {
+        return maxDurability;
+    }
+    
+    public int getBaseMaxDurability() {
+        return baseMaxDurability;
+    }
+    
+    public float getBreakingSpeed() {
+        return breakingSpeed;
+    }
+    
+    /**
+     * @return the breaking speed from the materials alone, this can be negative for invalid materials
+     */
+    public float getBaseBreakingSpeed() {
+        return baseBreakingSpeed;
+    }
+    
+    public int getMiningLevel() {
+        return miningLevel;
+    }
+    
+    public int getBaseMiningLevel() {
+        return baseMiningLevel;
+    }
+    
+    public int getEnchantability() {
+        return enchantability;
+    }
+    
+    public int getBaseEnchantability() {
+        return baseEnchantability;
+    }
+    
+    public float getAttackDamage() {
+        return attackDamage;
+    }
+    
+    public float getBaseAttackDamage() {
+        return baseAttackDamage;
+    }
+    
+    public Map<Modifier, Integer> getModifiers() {
+        return modifiers.asMap();
+    }
+    
+    public ModifierLevels getModifierLevels() {
+        return modifiers;
+    }
+    
+    /**
+     * @return the attribute modifiers of the tool in the slot, built once per snapshot and slot
+     */
+    public Multimap<EntityAttribute, EntityAttributeModifier> getAttributeModifiers(EquipmentSlot slot) {
+        Multimap<EntityAttribute, EntityAttributeModifier> multimap = attributeModifiers[slot.ordinal()];
+        if (multimap == null) {
+            // Broken tools should not deal any damage
+            double damage = durability > 0 ? attackDamage : -10000;
+            multimap = ImmutableMultimap.of(EntityAttributes.GENERIC_ATTACK_DAMAGE, new EntityAttributeModifier(MaterialisationUtils.getItemModifierDamage(), "Tool modifier", damage, EntityAttributeModifier.Operation.ADDITION));
+            attributeModifiers[slot.ordinal()] = multimap;
+        }
+        return multimap;
+    }
+    
+}
@@ -1,40 +1,69 @@
 package me.shedaniel.materialisation.config;
 
+import com.google.common.collect.Iterables;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
 import com.google.gson.*;
 import me.shedaniel.materialisation.Materialisation;
+import me.shedaniel.materialisation.MaterialisationUtils;
 import me.shedaniel.materialisation.api.*;
 import me.shedaniel.materialisation.config.MaterialisationConfig.ConfigIngredients;
 import me.shedaniel.materialisation.config.MaterialisationConfig.ConfigMaterial;
 import me.shedaniel.materialisation.modifiers.Modifiers;
-import me.shedaniel.materialisation.utils.ResettableSimpleRegistry;
+import me.shedaniel.materialisation.utils.MaterialCache;
 import net.fabricmc.loader.api.FabricLoader;
 import net.minecraft.util.Identifier;
 import net.minecraft.util.Lazy;
 import net.minecraft.util.Pair;
 
 import java.io.*;
-import java.lang.reflect.Field;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.*;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ForkJoinWorkerThread;
 import java.util.stream.Collectors;
-import java.util.zip.ZipEntry;
-import java.util.zip.ZipFile;
+import java.util.stream.Stream;
 
 public class ConfigHelper implements ModifierIngredientsHandler {
     
     public static final File CONFIG_DIRECTORY = new File(FabricLoader.getInstance().getConfigDirectory(), "materialisation");
     public static final File MATERIALS_DIRECTORY = new File(CONFIG_DIRECTORY, "material");
     public static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
-    public static final Map<String, PartMaterial> MATERIAL_CACHE = new HashMap<>();
+    public static final MaterialCache MATERIAL_CACHE = new MaterialCache();
     private static final File OLD_MATERIALS_DIRECTORY = new File(CONFIG_DIRECTORY, "materials");
     private static final List<JsonObject> MODIFIERS = Lists.newArrayList();
     private static final Map<Modifier, List<ModifierIngredient>> MODIFIER_LIST_MAP = Maps.newHashMap();
-    public static boolean loading = false;
-    private static Lazy<ExecutorService> executorService = new Lazy<>(() -> Executors.newSingleThreadScheduledExecutor(r -> new Thread(r, "Materialisation")));
+    // State of the last full load, the watcher reloads single entries on top of it
+    private static final List<MaterialsPack> DEFAULT_PACKS = Lists.newArrayList();
+    private static final List<Pair<ConfigPack, ConfigMaterial>> DEFAULT_MATERIALS = Lists.newArrayList();
+    private static final List<JsonObject> DEFAULT_MODIFIERS = Lists.newArrayList();
+    private static final Map<String, LoadedSource> LOADED_SOURCES = Maps.newHashMap();
+    private static final Map<ConfigMaterial, ResolvedMaterial> RESOLVED_MATERIALS = new IdentityHashMap<>();
+    private static boolean incremental = false;
+    public static volatile boolean loading = false;
+    /**
+     * Guards {@link #loading} and {@link #reloadQueued}, so a reload queued while a load finishes is never lost.
+     */
+    private static final Object LOADING_LOCK = new Object();
+    private static boolean reloadQueued = false;
+    private static final Lazy<ExecutorService> RELOAD_EXECUTOR = new Lazy<>(() -> Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "Materialisation");
+        thread.setDaemon(true);
+        return thread;
+    }));
+    private static final Lazy<ForkJoinPool> LOADING_POOL = new Lazy<>(() -> new ForkJoinPool(Math.max(1, Math.min(Runtime.getRuntime().availableProcessors() - 1, 8)), pool -> {
+        ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+        thread.setName("Materialisation Loader #" + thread.getPoolIndex());
+        return thread;
+    }, null, false));
     
     @SuppressWarnings("ResultOfMethodCallIgnored")
     public static void loadDefault() {
@@ -44,28 +73,51 @@ public class ConfigHelper implements ModifierIngredientsHandler {
             fillDefaultConfigs();
     }
     
+    /**
+     * Reloads the config in the background and returns immediately, the game keeps using the previous snapshot until
+     * the new one is published. Requests made while a reload is still queued are merged into that reload.
+     */
     public static void loadConfigAsync() {
-        try {
-            executorService.get().shutdownNow();
-            executorService = new Lazy<>(() -> Executors.newSingleThreadScheduledExecutor(r -> new Thread(r, "Materialisation")));
-            executorService.get().invokeAll(Collections.singletonList(() -> {
-                loadConfig();
-                return null;
-            }), 10, TimeUnit.SECONDS);
-        } catch (InterruptedException e) {
-            e.printStackTrace();
+        synchronized (LOADING_LOCK) {
+            loading = true;
+            if (reloadQueued)
+                return;
+            reloadQueued = true;
         }
+        RELOAD_EXECUTOR.get().execute(() -> {
+            synchronized (LOADING_LOCK) {
+                reloadQueued = false;
+            }
+            loadConfig();
+        });
     }
     
     @SuppressWarnings("ResultOfMethodCallIgnored")
-    public static void loadConfig() {
-        loading = true;
+    public static synchronized void loadConfig() {
+        synchronized (LOADING_LOCK) {
+            loading = true;
+        }
+        incremental = false;
+        LOADED_SOURCES.clear();
+        RESOLVED_MATERIALS.clear();
+        LoadProfiler profiler = new LoadProfiler();
+        MaterialisationSnapshot previous = MaterialisationSnapshot.get();
+        ConfigPack defaultPack = PartMaterials.createDefaultPack();
+        List<MaterialsPack> packs = previous.getPackList();
+        Map<Modifier, List<ModifierIngredient>> ingredients = previous.getModifierIngredients();
         try {
-            ((ResettableSimpleRegistry<Modifier>) Materialisation.MODIFIERS).reset();
             MODIFIERS.clear();
             MODIFIER_LIST_MAP.clear();
-            Modifiers.registerModifiers(new ConfigHelper());
-            Materialisation.LOGGER.info("[Materialisation] Loaded " + Materialisation.MODIFIERS.getIds().size() + " modifiers: " +
+            // Unlike before, the modifier registry is no longer reset on reload. Modifiers are defined in code by the
+            // materialisation_default suppliers, configs only give them ingredients, and those are collected again on
+            // every load. Keeping the instances keeps raw ids, cached tool stats and ModifierLevels valid across reloads.
+            // A supplier that registers new modifiers is only picked up on the first load.
+            if (Materialisation.MODIFIERS.getIds().isEmpty())
+                Modifiers.registerModifiers(new ConfigHelper());
+            else Modifiers.registerDefaultIngredients(new ConfigHelper());
+            // Other mods may have registered modifiers since the last load
+            Modifiers.compileModifiers();
+            Materialisation.LOGGER.debug("[Materialisation] Loaded " + Materialisation.MODIFIERS.getIds().size() + " modifiers: " +
                                         Materialisation.MODIFIERS.getIds().stream().map(Identifier::toString).collect(Collectors.joining(", ")));
             for (Map.Entry<Modifier, List<ModifierIngredient>> entry : MODIFIER_LIST_MAP.entrySet()) {
                 Identifier id = Materialisation.MODIFIERS.getId(entry.getKey());
@@ -90,9 +142,7 @@ public class ConfigHelper implements ModifierIngredientsHandler {
             List<MaterialsPack> loadedPacks = Lists.newArrayList();
             List<Pair<ConfigPack, ConfigMaterial>> knownMaterials = Lists.newArrayList();
             List<JsonObject> overrides = Lists.newArrayList();
-            MATERIAL_CACHE.clear();
-            Modifiers.resetMap();
-            PartMaterials.clearMaterials();
+            ValidationReport report = new ValidationReport();
             try {
                 for (Object o : FabricLoader.getInstance().getEntrypoints("materialisation_default", Object.class)) {
                     if (o instanceof DefaultMaterialSupplier) {
@@ -109,217 +159,122 @@ public class ConfigHelper implements ModifierIngredientsHandler {
                         }
                     }
                 }
-                for (MaterialsPack defaultPack : defaultPacks) {
-                    ConfigPack pack = new ConfigPack(defaultPack.getConfigPackInfo(), Maps.newLinkedHashMap());
+                for (MaterialsPack suppliedPack : defaultPacks) {
+                    if (!isPackEnabled(suppliedPack.getConfigPackInfo()))
+                        continue;
+                    ConfigPack pack = new ConfigPack(suppliedPack.getConfigPackInfo(), Maps.newLinkedHashMap());
                     loadedPacks.add(pack);
-                    for (Map.Entry<String, PartMaterial> entry : defaultPack.getKnownMaterialMap().entrySet()) {
+                    for (Map.Entry<String, PartMaterial> entry : suppliedPack.getKnownMaterialMap().entrySet()) {
                         knownMaterials.add(new Pair<>(pack, new ConfigMaterial(entry.getValue())));
                     }
-                    Materialisation.LOGGER.info("[Materialisation] Loading default pack: " + pack.getIdentifier().toString());
+                    Materialisation.LOGGER.debug("[Materialisation] Loading default pack: " + pack.getIdentifier().toString());
                 }
                 for (PartMaterial partMaterial : defaultMaterials) {
                     ConfigMaterial material = new ConfigMaterial(partMaterial);
-                    knownMaterials.add(new Pair<>(PartMaterials.getDefaultPack(), material));
-                    Materialisation.LOGGER.info("[Materialisation] Loading default material: " + material.getIdentifier().toString());
+                    knownMaterials.add(new Pair<>(defaultPack, material));
+                    Materialisation.LOGGER.debug("[Materialisation] Loading default material: " + material.getIdentifier().toString());
                 }
-                for (File file : MATERIALS_DIRECTORY.listFiles()) {
-                    // Load Old
-                    if (file.isFile() && file.getName().toLowerCase(Locale.ROOT).endsWith(".json")) {
-                        try {
-                            JsonObject object = GSON.fromJson(new FileReader(file), JsonObject.class);
-                            if (!object.has("type") || object.get("type").getAsString().equalsIgnoreCase("material")) {
-                                Materialisation.LOGGER.info("[Materialisation] Loading material file: " + file.getName());
-                                knownMaterials.add(new Pair<>(PartMaterials.getDefaultPack(), GSON.fromJson(object, ConfigMaterial.class)));
-                            } else {
-                                String type = object.get("type").getAsString();
-                                if (type.equalsIgnoreCase("override")) {
-                                    Materialisation.LOGGER.info("[Materialisation] Loading override file: " + file.getName());
-                                    overrides.add(object);
-                                } else if (type.equalsIgnoreCase("modifier")) {
-                                    Materialisation.LOGGER.info("[Materialisation] Loading modifier file: " + file.getName());
-                                    MODIFIERS.add(object);
-                                } else {
-                                    Materialisation.LOGGER.warn("[Materialisation] Cancelled loading unknown file: " + file.getName());
-                                }
-                            }
-                        } catch (Exception e) {
-                            Materialisation.LOGGER.error("[Materialisation] Failed to load material.", e);
+                DEFAULT_PACKS.clear();
+                DEFAULT_PACKS.addAll(loadedPacks);
+                DEFAULT_MATERIALS.clear();
+                for (Pair<ConfigPack, ConfigMaterial> knownMaterial : knownMaterials)
+                    DEFAULT_MATERIALS.add(new Pair<>(knownMaterial.getLeft() == defaultPack ? null : knownMaterial.getLeft(), knownMaterial.getRight()));
+                DEFAULT_MODIFIERS.clear();
+                DEFAULT_MODIFIERS.addAll(MODIFIERS);
+                String cacheKey = null;
+                PackCache.Snapshot cached = null;
+                try {
+                    cacheKey = PackCache.computeKey(MATERIALS_DIRECTORY, knownMaterials, defaultPacks);
+                    cached = PackCache.read(cacheKey);
+                } catch (Exception e) {
+                    Materialisation.LOGGER.warn("[Materialisation] Failed to hash material files, the material cache will not be used.", e);
+                }
+                profiler.mark(LoadProfiler.Phase.DISCOVERY);
+                if (cached != null) {
+                    profiler.setCached(true);
+                    // Cached indexes count every cached pack, so disabled packs are only left out after the materials are matched up
+                    int supplied = loadedPacks.size();
+                    List<ConfigPack> cachedPacks = Lists.newArrayList();
+                    Set<ConfigPack> disabledPacks = Sets.newHashSet();
+                    for (PackCache.CachedPack cachedPack : cached.packs) {
+                        ConfigPack pack = new ConfigPack(cachedPack.info.toInfo(), Maps.newLinkedHashMap());
+                        pack.getOverrides().set(cachedPack.overrides);
+                        pack.getModifiers().set(cachedPack.modifiers);
+                        cachedPacks.add(pack);
+                        if (!isPackEnabled(pack.getConfigPackInfo()))
+                            disabledPacks.add(pack);
+                    }
+                    // The cached materials already have the overrides applied, including the ones on default materials
+                    knownMaterials.clear();
+                    for (Pair<Integer, ConfigMaterial> material : cached.materials) {
+                        int index = material.getLeft();
+                        ConfigPack pack = index == 0 ? defaultPack : index <= supplied ? (ConfigPack) loadedPacks.get(index - 1) : cachedPacks.get(index - 1 - supplied);
+                        if (!disabledPacks.contains(pack))
+                            knownMaterials.add(new Pair<>(pack, material.getRight()));
+                    }
+                    for (ConfigPack pack : cachedPacks)
+                        if (!disabledPacks.contains(pack))
+                            loadedPacks.add(pack);
+                    for (String modifier : cached.modifiers)
+                        MODIFIERS.add(GSON.fromJson(modifier, JsonObject.class));
+                    profiler.mark(LoadProfiler.Phase.PARSE);
+                } else {
+                    boolean cacheable = cacheKey != null;
+                    PackCache.Snapshot snapshot = new PackCache.Snapshot();
+                    // Sources are parsed concurrently, but merged in directory order so load order and override priority stay stable
+                    List<ForkJoinTask<LoadedSource>> tasks = Lists.newArrayList();
+                    List<String> names = Lists.newArrayList();
+                    for (File file : MATERIALS_DIRECTORY.listFiles()) {
+                        names.add(file.getName());
+                        tasks.add(LOADING_POOL.get().submit(() -> loadSource(file)));
+                    }
+                    for (int i = 0; i < tasks.size(); i++) {
+                        LoadedSource source = tasks.get(i).join();
+                        LOADED_SOURCES.put(names.get(i), source);
+                        profiler.file(names.get(i), source.nanos, source.bytes);
+                        if (source.disabled)
+                            continue;
+                        ConfigPack pack = source.pack == null ? defaultPack : source.pack;
+                        if (source.failed)
+                            cacheable = false;
+                        if (source.pack != null) {
+                            loadedPacks.add(source.pack);
+                            snapshot.packs.add(new PackCache.CachedPack(source.packInfo, source.pack.getOverrides().get(), source.pack.getModifiers().get()));
                         }
-                    } else
-                        // Load Packs
-                        if (file.isDirectory()) {
-                            try {
-                                File packInfoFile = new File(file, "materials.info.json");
-                                if (packInfoFile.exists()) {
-                                    ConfigPackInfo packInfo = GSON.fromJson(new FileReader(packInfoFile), ConfigPackInfoJson.class).toInfo();
-                                    ConfigPack configPack = new ConfigPack(packInfo, Maps.newLinkedHashMap());
-                                    loadedPacks.add(configPack);
-                                    Materialisation.LOGGER.info("[Materialisation] Loading material pack: " + packInfo.getIdentifier());
-                                    for (File listFile : file.listFiles()) {
-                                        if (listFile.isFile() && listFile.getName().toLowerCase(Locale.ROOT).endsWith(".json") && !listFile.getName().equals("materials.info.json")) {
-                                            try {
-                                                JsonObject object = GSON.fromJson(new FileReader(listFile), JsonObject.class);
-                                                if (!object.has("type") || object.get("type").getAsString().equalsIgnoreCase("material")) {
-                                                    Materialisation.LOGGER.info("[Materialisation] Loading material file: " + listFile.getName());
-                                                    knownMaterials.add(new Pair<>(configPack, GSON.fromJson(object, ConfigMaterial.class)));
-                                                } else {
-                                                    String type = object.get("type").getAsString();
-                                                    if (type.equalsIgnoreCase("override")) {
-                                                        Materialisation.LOGGER.info("[Materialisation] Loading override file: " + listFile.getName());
-                                                        overrides.add(object);
-                                                        configPack.getOverrides().incrementAndGet();
-                                                    } else if (type.equalsIgnoreCase("modifier")) {
-                                                        Materialisation.LOGGER.info("[Materialisation] Loading modifier file: " + file.getName());
-                                                        MODIFIERS.add(object);
-                                                        configPack.getModifiers().incrementAndGet();
-                                                    } else {
-                                                        Materialisation.LOGGER.warn("[Materialisation] Cancelled loading unknown file: " + listFile.getName());
-                                                    }
-                                                }
-                                            } catch (Exception e) {
-                                                Materialisation.LOGGER.error("[Materialisation] Failed to load material.", e);
-                                            }
-                                        }
-                                    }
-                                }
-                            } catch (Exception e) {
-                                Materialisation.LOGGER.error("[Materialisation] Failed to load material pack.", e);
-                            }
-                        } else if (file.isFile() && file.getName().toLowerCase(Locale.ROOT).endsWith(".materialpack")) {
-                            try (ZipFile zipFile = new ZipFile(file)) {
-                                ZipEntry packInfoEntry = zipFile.getEntry("materials.info.json");
-                                if (packInfoEntry != null) {
-                                    ConfigPackInfo packInfo = GSON.fromJson(new InputStreamReader(zipFile.getInputStream(packInfoEntry)), ConfigPackInfoJson.class).toInfo();
-                                    ConfigPack configPack = new ConfigPack(packInfo, Maps.newLinkedHashMap());
-                                    loadedPacks.add(configPack);
-                                    Materialisation.LOGGER.info("[Materialisation] Loading material pack: " + packInfo.getIdentifier());
-                                    final Enumeration<? extends ZipEntry> entries = zipFile.entries();
-                                    while (entries.hasMoreElements()) {
-                                        final ZipEntry zipEntry = entries.nextElement();
-                                        if (!zipEntry.isDirectory() && zipEntry.getName().toLowerCase(Locale.ROOT).endsWith(".json") && !zipEntry.getName().equals("materials.info.json")) {
-                                            try {
-                                                JsonObject object = GSON.fromJson(new InputStreamReader(zipFile.getInputStream(zipEntry)), JsonObject.class);
-                                                if (!object.has("type") || object.get("type").getAsString().equalsIgnoreCase("material")) {
-                                                    Materialisation.LOGGER.info("[Materialisation] Loading material file: " + zipEntry.getName());
-                                                    knownMaterials.add(new Pair<>(configPack, GSON.fromJson(object, ConfigMaterial.class)));
-                                                } else {
-                                                    String type = object.get("type").getAsString();
-                                                    if (type.equalsIgnoreCase("override")) {
-                                                        Materialisation.LOGGER.info("[Materialisation] Loading override file: " + zipEntry.getName());
-                                                        overrides.add(object);
-                                                        configPack.getOverrides().incrementAndGet();
-                                                    } else if (type.equalsIgnoreCase("modifier")) {
-                                                        Materialisation.LOGGER.info("[Materialisation] Loading modifier file: " + file.getName());
-                                                        MODIFIERS.add(object);
-                                                        configPack.getModifiers().incrementAndGet();
-                                                    } else {
-                                                        Materialisation.LOGGER.warn("[Materialisation] Cancelled loading unknown file: " + zipEntry.getName());
-                                                    }
-                                                }
-                                            } catch (Exception e) {
-                                                Materialisation.LOGGER.error("[Materialisation] Failed to load material.", e);
-                                            }
-                                        }
-                                    }
-                                }
-                            } catch (Exception e) {
-                                Materialisation.LOGGER.error("[Materialisation] Failed to load material pack.", e);
-                            }
+                        for (ConfigMaterial material : source.materials)
+                            knownMaterials.add(new Pair<>(pack, material));
+                        overrides.addAll(source.overrides);
+                        for (JsonObject modifier : source.modifiers) {
+                            MODIFIERS.add(modifier);
+                            snapshot.modifiers.add(GSON.toJson(modifier));
                         }
-                }
-                overrides.sort(Comparator.comparingDouble(value -> value.has("priority") ? value.get("priority").getAsDouble() : 0d));
-                for (JsonObject override : overrides)
-                    try {
-                        Identifier identifier = new Identifier(override.get("name").getAsString());
-                        for (Map.Entry<String, JsonElement> entry : override.entrySet())
-                            if (!entry.getKey().equalsIgnoreCase("type") && !entry.getKey().equalsIgnoreCase("name") && !entry.getKey().equalsIgnoreCase("priority")) {
-                                ConfigMaterial material = null;
-                                for (Pair<ConfigPack, ConfigMaterial> knownMaterial : knownMaterials) {
-                                    if (new Identifier(knownMaterial.getRight().name).equals(identifier)) {
-                                        material = knownMaterial.getRight();
-                                        break;
-                                    }
-                                }
-                                if (material == null)
-                                    throw new NullPointerException("Material " + identifier.toString() + " not found!");
-                                String key = entry.getKey();
-                                boolean replaced = false;
-                                for (Field declaredField : ConfigMaterial.class.getDeclaredFields())
-                                    if (java.lang.reflect.Modifier.isPublic(declaredField.getModifiers()) && !java.lang.reflect.Modifier.isTransient(declaredField.getModifiers()))
-                                        if (declaredField.getName().equalsIgnoreCase(key)) {
-                                            declaredField.setAccessible(true);
-                                            declaredField.set(material, GSON.fromJson(entry.getValue(), Object.class));
-                                            replaced = true;
-                                            break;
-                                        }
-                                if (!replaced)
-                                    throw new NullPointerException("Failed to place field '" + key + "' of material " + material.getIdentifier().toString() + "!");
-                            }
-                    } catch (Exception e) {
-                        Materialisation.LOGGER.error("[Materialisation] Failed to load override.", e);
                     }
-                Comparator<JsonObject> comparingDouble = Comparator.comparingDouble(value -> value.has("priority") ? value.get("priority").getAsDouble() : 0d);
-                MODIFIERS.sort(comparingDouble.reversed());
-                for (JsonObject modifier : MODIFIERS) {
-                    Identifier identifier = new Identifier(modifier.get("modifier").getAsString());
-                    if (Modifiers.containsIngredientForModifier(identifier))
-                        continue;
-                    List<ModifierIngredient> ingredients = new ArrayList<>();
-                    for (Map.Entry<String, JsonElement> entry : modifier.get("ingredients").getAsJsonObject().entrySet()) {
-                        ModifierIngredient.Builder builder = ModifierIngredient.builder();
-                        int i = Integer.parseInt(entry.getKey());
-                        if (i <= 0) i = -1;
-                        List<BetterIngredient> list = new ArrayList<>();
-                        for (JsonElement element : entry.getValue().getAsJsonArray()) {
-                            list.add(GSON.fromJson(element, MaterialisationConfig.ConfigIngredient.class).toBetterIngredient());
+                    profiler.mark(LoadProfiler.Phase.PARSE);
+                    overrides.sort(Comparator.comparingDouble(value -> value.has("priority") ? value.get("priority").getAsDouble() : 0d));
+                    if (!applyOverrides(knownMaterials, overrides, report))
+                        cacheable = false;
+                    incremental = true;
+                    // Results with errors are not cached, so the errors are logged again on the next load
+                    if (cacheable) {
+                        for (Pair<ConfigPack, ConfigMaterial> knownMaterial : knownMaterials) {
+                            ConfigPack pack = knownMaterial.getLeft();
+                            snapshot.materials.add(new Pair<>(pack == defaultPack ? 0 : indexOf(loadedPacks, pack) + 1, knownMaterial.getRight()));
                         }
-                        builder.registerIngredient(i, list.toArray(new BetterIngredient[0]));
-                        ingredients.add(builder.build());
+                        PackCache.write(cacheKey, snapshot);
                     }
-                    Modifiers.registerIngredients(identifier, ingredients);
-                    Materialisation.LOGGER.info("[Materialisation] Loaded modifier ingredient for " + identifier.toString() + ".");
+                    profiler.mark(LoadProfiler.Phase.OVERRIDES);
                 }
+                Comparator<JsonObject> comparingDouble = Comparator.comparingDouble(value -> value.has("priority") ? value.get("priority").getAsDouble() : 0d);
+                MODIFIERS.sort(comparingDouble.reversed());
+                ingredients = Modifiers.resolveIngredients(loadModifierIngredients(MODIFIERS, report));
+                profiler.mark(LoadProfiler.Phase.MODIFIERS);
             } catch (Exception e) {
                 Materialisation.LOGGER.error("[Materialisation] Failed to load config.", e);
             }
-            for (Pair<ConfigPack, ConfigMaterial> knownMaterial : knownMaterials) {
-                ConfigPack pack = knownMaterial.getLeft();
-                ConfigMaterial right = knownMaterial.getRight();
-                if (right.enabled)
-                    pack.getKnownMaterialMap().put(right.name, right);
-            }
-            List<MaterialsPack> packs = Lists.newArrayList();
-            for (MaterialsPack loadedPack : loadedPacks) {
-                boolean enabled = false;
-                try {
-                    loadedPack.getConfigPackInfo().getPredicate().accept(loadedPack.getConfigPackInfo());
-                    enabled = true;
-                } catch (Throwable throwable) {
-                    Materialisation.LOGGER.warn("[Materialisation] " + throwable.getMessage());
-                }
-                if (enabled) {
-                    packs.add(loadedPack);
-                    Materialisation.LOGGER.info(String.format("[Materialisation] Finished loading material pack: %s with %d material(s).", loadedPack.getIdentifier().toString(), loadedPack.getKnownMaterials().count()));
-                }
-            }
-            List<String> packIds = Lists.newArrayList();
-            for (MaterialsPack pack : packs) {
-                String id = pack.getIdentifier().toString().toLowerCase(Locale.ROOT);
-                if (packIds.stream().anyMatch(s -> s.equals(id)))
-                    throw new IllegalStateException("Duplicate Pack Ids: " + id);
-                packIds.add(id);
-            }
-            List<String> materialIds = Lists.newArrayList();
-            for (MaterialsPack pack : packs) {
-                pack.getKnownMaterials().forEach(partMaterial -> {
-                    String id = partMaterial.getIdentifier().toString().toLowerCase(Locale.ROOT);
-                    if (materialIds.stream().anyMatch(s -> s.equals(id)))
-                        throw new IllegalStateException("Duplicate Material Ids: " + id);
-                    materialIds.add(id);
-                });
-            }
-            packs.forEach(PartMaterials::registerPack);
-            Materialisation.LOGGER.info("[Materialisation] Finished loading material(s): " + PartMaterials.getKnownMaterials().map(PartMaterial::getIdentifier).map(Identifier::toString).collect(Collectors.joining(", ")));
+            fillPacks(knownMaterials);
+            packs = filterPacks(defaultPack, loadedPacks, report);
+            profiler.mark(LoadProfiler.Phase.PREDICATE);
+            report.log();
             if (FabricLoader.getInstance().isDevelopmentEnvironment()) {
                 File autoGen = new File(CONFIG_DIRECTORY, "materialisation-dev-autogen");
                 autoGen.mkdirs();
@@ -339,9 +294,332 @@ public class ConfigHelper implements ModifierIngredientsHandler {
         } catch (Throwable throwable) {
             throwable.printStackTrace();
         }
-        MATERIAL_CACHE.clear();
-        Modifiers.fillEmpty();
-        loading = false;
+        MaterialisationSnapshot.publish(new MaterialisationSnapshot(defaultPack, packs, ingredients));
+        Materialisation.LOGGER.debug("[Materialisation] Finished loading material(s): " + PartMaterials.getKnownMaterials().map(PartMaterial::getIdentifier).map(Identifier::toString).collect(Collectors.joining(", ")));
+        MaterialStatTable.build();
+        MaterialisationUtils.invalidateToolStats();
+        profiler.mark(LoadProfiler.Phase.REGISTRATION);
+        profiler.finish("Loaded", (int) PartMaterials.getKnownMaterials().count(), (int) PartMaterials.getMaterialPacks().count());
+        synchronized (LOADING_LOCK) {
+            loading = reloadQueued;
+        }
+    }
+    
+    /**
+     * Reloads entries of the materials directory on top of the last full load, entries that no longer exist are removed.
+     * <p>
+     * Materials and overrides that did not change keep their instances, so tools made of them keep their cached stats.
+     * The new packs replace the registered ones in a single step, and the previous packs stay if the reload fails.
+     *
+     * @param names the names of the changed files and pack directories in the materials directory
+     */
+    public static synchronized void reloadEntries(Collection<String> names) {
+        if (!incremental) {
+            // The last load came from the pack cache or failed, there are no parsed entries to reload on top of
+            loadConfig();
+            return;
+        }
+        LoadProfiler profiler = new LoadProfiler();
+        try {
+            Map<String, ForkJoinTask<LoadedSource>> tasks = Maps.newLinkedHashMap();
+            for (String name : names) {
+                File file = new File(MATERIALS_DIRECTORY, name);
+                if (file.exists())
+                    tasks.put(name, LOADING_POOL.get().submit(() -> loadSource(file)));
+                else LOADED_SOURCES.remove(name);
+            }
+            profiler.mark(LoadProfiler.Phase.DISCOVERY);
+            for (Map.Entry<String, ForkJoinTask<LoadedSource>> task : tasks.entrySet()) {
+                LoadedSource source = task.getValue().join();
+                LOADED_SOURCES.put(task.getKey(), source);
+                profiler.file(task.getKey(), source.nanos, source.bytes);
+            }
+            ConfigPack defaultPack = PartMaterials.createDefaultPack();
+            Map<ConfigPack, ConfigPack> copiedPacks = new IdentityHashMap<>();
+            List<MaterialsPack> loadedPacks = Lists.newArrayList();
+            List<Pair<ConfigPack, ConfigMaterial>> knownMaterials = Lists.newArrayList();
+            List<JsonObject> overrides = Lists.newArrayList();
+            List<JsonObject> modifiers = Lists.newArrayList(DEFAULT_MODIFIERS);
+            ValidationReport report = new ValidationReport();
+            for (MaterialsPack pack : DEFAULT_PACKS)
+                loadedPacks.add(copyPack((ConfigPack) pack, copiedPacks));
+            for (Pair<ConfigPack, ConfigMaterial> material : DEFAULT_MATERIALS)
+                knownMaterials.add(new Pair<>(material.getLeft() == null ? defaultPack : copyPack(material.getLeft(), copiedPacks), material.getRight()));
+            for (File file : MATERIALS_DIRECTORY.listFiles()) {
+                LoadedSource source = LOADED_SOURCES.get(file.getName());
+                if (source == null || source.disabled)
+                    continue;
+                ConfigPack pack = source.pack == null ? defaultPack : copyPack(source.pack, copiedPacks);
+                if (source.pack != null)
+                    loadedPacks.add(pack);
+                for (ConfigMaterial material : source.materials)
+                    knownMaterials.add(new Pair<>(pack, material));
+                overrides.addAll(source.overrides);
+                modifiers.addAll(source.modifiers);
+            }
+            profiler.mark(LoadProfiler.Phase.PARSE);
+            overrides.sort(Comparator.comparingDouble(value -> value.has("priority") ? value.get("priority").getAsDouble() : 0d));
+            applyOverrides(knownMaterials, overrides, report);
+            profiler.mark(LoadProfiler.Phase.OVERRIDES);
+            Comparator<JsonObject> comparingDouble = Comparator.comparingDouble(value -> value.has("priority") ? value.get("priority").getAsDouble() : 0d);
+            modifiers.sort(comparingDouble.reversed());
+            Map<Modifier, List<ModifierIngredient>> ingredients = MaterialisationSnapshot.get().getModifierIngredients();
+            if (!modifiers.equals(MODIFIERS)) {
+                ingredients = Modifiers.resolveIngredients(loadModifierIngredients(modifiers, report));
+                MODIFIERS.clear();
+                MODIFIERS.addAll(modifiers);
+            }
+            profiler.mark(LoadProfiler.Phase.MODIFIERS);
+            fillPacks(knownMaterials);
+            List<MaterialsPack> packs = filterPacks(defaultPack, loadedPacks, report);
+            profiler.mark(LoadProfiler.Phase.PREDICATE);
+            MaterialisationSnapshot.publish(new MaterialisationSnapshot(defaultPack, packs, ingredients));
+            report.log();
+            MaterialStatTable.build();
+            MaterialisationUtils.refreshToolStats();
+            profiler.mark(LoadProfiler.Phase.REGISTRATION);
+            profiler.finish("Reloaded " + String.join(", ", names) + " with", (int) PartMaterials.getKnownMaterials().count(), packs.size() + 1);
+        } catch (Throwable throwable) {
+            Materialisation.LOGGER.error("[Materialisation] Failed to reload " + String.join(", ", names) + ", keeping the previous materials.", throwable);
+        }
+    }
+    
+    private static ConfigPack copyPack(ConfigPack pack, Map<ConfigPack, ConfigPack> copiedPacks) {
+        return copiedPacks.computeIfAbsent(pack, template -> {
+            ConfigPack copy = new ConfigPack(template.getConfigPackInfo(), Maps.newLinkedHashMap());
+            copy.getOverrides().set(template.getOverrides().get());
+            copy.getModifiers().set(template.getModifiers().get());
+            return copy;
+        });
+    }
+    
+    /**
+     * Applies the overrides to copies of the materials they target, so parsed materials stay untouched for later reloads.
+     * Copies from the last load are reused when neither their material nor their overrides changed.
+     *
+     * @return whether every override was applied
+     */
+    private static boolean applyOverrides(List<Pair<ConfigPack, ConfigMaterial>> knownMaterials, List<JsonObject> overrides, ValidationReport report) {
+        boolean applied = true;
+        Map<Identifier, List<JsonObject>> targets = Maps.newLinkedHashMap();
+        for (JsonObject override : overrides)
+            try {
+                targets.computeIfAbsent(new Identifier(override.get("name").getAsString()), identifier -> Lists.newArrayList()).add(override);
+            } catch (Exception e) {
+                applied = false;
+                Materialisation.LOGGER.error("[Materialisation] Failed to load override.", e);
+            }
+        // Overrides target the first material with their identifier
+        Map<Identifier, Integer> indices = Maps.newHashMapWithExpectedSize(knownMaterials.size());
+        for (int i = 0; i < knownMaterials.size(); i++) {
+            Identifier identifier = Identifier.tryParse(knownMaterials.get(i).getRight().name);
+            if (identifier != null)
+                indices.putIfAbsent(identifier, i);
+        }
+        Map<ConfigMaterial, ResolvedMaterial> resolvedMaterials = new IdentityHashMap<>();
+        for (Map.Entry<Identifier, List<JsonObject>> target : targets.entrySet()) {
+            int index = indices.getOrDefault(target.getKey(), -1);
+            if (index < 0) {
+                applied = false;
+                report.add(ValidationReport.Problem.UNKNOWN_OVERRIDE_TARGET, target.getKey().toString());
+                continue;
+            }
+            ConfigMaterial material = knownMaterials.get(index).getRight();
+            ResolvedMaterial resolved = RESOLVED_MATERIALS.get(material);
+            if (resolved == null || !resolved.overrides.equals(target.getValue())) {
+                resolved = new ResolvedMaterial(target.getValue(), GSON.fromJson(GSON.toJsonTree(material), ConfigMaterial.class));
+                for (JsonObject override : target.getValue())
+                    try {
+                        MaterialOverrides.apply(resolved.material, override);
+                    } catch (Exception e) {
+                        resolved.failed = true;
+                        Materialisation.LOGGER.error("[Materialisation] Failed to load override.", e);
+                    }
+            }
+            if (resolved.failed)
+                applied = false;
+            resolvedMaterials.put(material, resolved);
+            knownMaterials.set(index, new Pair<>(knownMaterials.get(index).getLeft(), resolved.material));
+        }
+        RESOLVED_MATERIALS.clear();
+        RESOLVED_MATERIALS.putAll(resolvedMaterials);
+        return applied;
+    }
+    
+    /**
+     * @param modifiers modifier files, ordered from the highest priority
+     */
+    private static Map<Identifier, List<ModifierIngredient>> loadModifierIngredients(List<JsonObject> modifiers, ValidationReport report) {
+        Map<Identifier, List<ModifierIngredient>> map = Maps.newLinkedHashMap();
+        for (JsonObject modifier : modifiers) {
+            Identifier identifier = new Identifier(modifier.get("modifier").getAsString());
+            if (map.containsKey(identifier))
+                continue;
+            if (!Materialisation.MODIFIERS.getOrEmpty(identifier).isPresent()) {
+                report.add(ValidationReport.Problem.UNKNOWN_MODIFIER, identifier.toString());
+                continue;
+            }
+            List<ModifierIngredient> ingredients = new ArrayList<>();
+            for (Map.Entry<String, JsonElement> entry : modifier.get("ingredients").getAsJsonObject().entrySet()) {
+                ModifierIngredient.Builder builder = ModifierIngredient.builder();
+                int i = Integer.parseInt(entry.getKey());
+                if (i <= 0) i = -1;
+                List<BetterIngredient> list = new ArrayList<>();
+                for (JsonElement element : entry.getValue().getAsJsonArray()) {
+                    list.add(GSON.fromJson(element, MaterialisationConfig.ConfigIngredient.class).toBetterIngredient());
+                }
+                builder.registerIngredient(i, list.toArray(new BetterIngredient[0]));
+                ingredients.add(builder.build());
+            }
+            map.put(identifier, ingredients);
+            Materialisation.LOGGER.debug("[Materialisation] Loaded modifier ingredient for " + identifier.toString() + ".");
+        }
+        return map;
+    }
+    
+    private static void fillPacks(List<Pair<ConfigPack, ConfigMaterial>> knownMaterials) {
+        for (Pair<ConfigPack, ConfigMaterial> knownMaterial : knownMaterials) {
+            ConfigPack pack = knownMaterial.getLeft();
+            ConfigMaterial right = knownMaterial.getRight();
+            if (right.enabled)
+                pack.getKnownMaterialMap().put(right.name, right);
+        }
+    }
+    
+    /**
+     * Runs the pack predicates and drops everything that conflicts with an earlier pack or material.
+     *
+     * @return the packs to register besides the default pack
+     */
+    private static List<MaterialsPack> filterPacks(ConfigPack defaultPack, List<MaterialsPack> loadedPacks, ValidationReport report) {
+        List<MaterialsPack> packs = Lists.newArrayList();
+        Set<String> packIds = Sets.newHashSet();
+        // Predicates were already checked by isPackEnabled as the packs were loaded
+        for (MaterialsPack loadedPack : loadedPacks) {
+            String id = loadedPack.getIdentifier().toString().toLowerCase(Locale.ROOT);
+            if (!packIds.add(id)) {
+                report.add(ValidationReport.Problem.DUPLICATE_PACK, id);
+                continue;
+            }
+            packs.add(loadedPack);
+        }
+        // Like before, only materials of the loaded packs are checked against each other, packs may redefine default materials
+        Map<String, Identifier> materialPacks = Maps.newHashMap();
+        for (MaterialsPack pack : Iterables.concat(Collections.singletonList(defaultPack), packs)) {
+            Iterator<PartMaterial> iterator = pack.getKnownMaterialMap().values().iterator();
+            while (iterator.hasNext()) {
+                PartMaterial material = iterator.next();
+                String id = material.getIdentifier().toString().toLowerCase(Locale.ROOT);
+                Identifier previous = pack == defaultPack ? null : materialPacks.putIfAbsent(id, pack.getIdentifier());
+                if (previous != null) {
+                    report.add(ValidationReport.Problem.DUPLICATE_MATERIAL, id + " in " + pack.getIdentifier() + ", already loaded from " + previous);
+                    iterator.remove();
+                    continue;
+                }
+                try {
+                    material.getToolColor();
+                } catch (RuntimeException e) {
+                    report.add(ValidationReport.Problem.BAD_COLOR, id + ": " + e.getMessage());
+                }
+            }
+        }
+        for (MaterialsPack pack : packs)
+            Materialisation.LOGGER.debug(String.format("[Materialisation] Finished loading material pack: %s with %d material(s).", pack.getIdentifier().toString(), pack.getKnownMaterials().count()));
+        return packs;
+    }
+    
+    /**
+     * Parses a loose json file, a pack directory or a zipped pack, this runs on the loading pool and must not touch shared state.
+     */
+    private static LoadedSource loadSource(File file) {
+        long start = System.nanoTime();
+        LoadedSource source = new LoadedSource();
+        source.bytes = file.isFile() ? file.length() : 0;
+        if (file.isFile() && file.getName().toLowerCase(Locale.ROOT).endsWith(".json")) {
+            // Load Old
+            try {
+                MaterialEntryReader.read(source, file.getName(), file.toPath());
+            } catch (Exception e) {
+                Materialisation.LOGGER.error("[Materialisation] Failed to load material: " + file.getName(), e);
+                source.failed = true;
+            }
+        } else if (file.isDirectory()) {
+            // Load Packs
+            loadPack(source, file.getName(), file.toPath(), 1);
+        } else if (file.isFile() && file.getName().toLowerCase(Locale.ROOT).endsWith(".materialpack")) {
+            try (FileSystem fileSystem = FileSystems.newFileSystem(file.toPath(), (ClassLoader) null)) {
+                loadPack(source, file.getName(), fileSystem.getPath("/"), Integer.MAX_VALUE);
+            } catch (Exception e) {
+                Materialisation.LOGGER.error("[Materialisation] Failed to load material pack: " + file.getName(), e);
+                source.failed = true;
+            }
+        }
+        source.nanos = System.nanoTime() - start;
+        return source;
+    }
+    
+    /**
+     * Checks the predicate of a pack, every pack is checked once as it is loaded and disabled packs never reach filterPacks.
+     */
+    private static boolean isPackEnabled(ConfigPackInfo packInfo) {
+        try {
+            packInfo.getPredicate().accept(packInfo);
+            return true;
+        } catch (Throwable throwable) {
+            Materialisation.LOGGER.warn("[Materialisation] " + throwable.getMessage());
+            return false;
+        }
+    }
+    
+    /**
+     * Entries are loaded sorted by path. Neither the zip file system nor a directory listing has a defined order, so the
+     * same pack loads the same way as a directory or an archive, on every platform.
+     *
+     * @param depth how deep to look for entries, directory packs only load their top level while archives load every entry
+     */
+    private static void loadPack(LoadedSource source, String fileName, Path root, int depth) {
+        try {
+            Path packInfoFile = root.resolve("materials.info.json");
+            if (Files.exists(packInfoFile)) {
+                try (Reader reader = Files.newBufferedReader(packInfoFile, StandardCharsets.UTF_8)) {
+                    source.packInfo = GSON.fromJson(reader, ConfigPackInfoJson.class);
+                    source.pack = new ConfigPack(source.packInfo.toInfo(), Maps.newLinkedHashMap());
+                }
+                // Packs for missing mods are skipped before any of their entries are read
+                if (!isPackEnabled(source.pack.getConfigPackInfo())) {
+                    source.disabled = true;
+                    return;
+                }
+                Materialisation.LOGGER.debug("[Materialisation] Loading material pack: " + source.pack.getIdentifier());
+                List<Path> entries;
+                try (Stream<Path> stream = Files.walk(root, depth)) {
+                    entries = stream.filter(path -> !path.equals(packInfoFile) && Files.isRegularFile(path) && path.getFileName().toString().toLowerCase(Locale.ROOT).endsWith(".json"))
+                            .sorted()
+                            .collect(Collectors.toList());
+                }
+                source.bytes = Files.size(packInfoFile);
+                for (Path entry : entries) {
+                    String name = root.relativize(entry).toString();
+                    try {
+                        source.bytes += Files.size(entry);
+                        MaterialEntryReader.read(source, name, entry);
+                    } catch (Exception e) {
+                        Materialisation.LOGGER.error("[Materialisation] Failed to load material: " + fileName + "/" + name, e);
+                        source.failed = true;
+                    }
+                }
+            }
+        } catch (Exception e) {
+            Materialisation.LOGGER.error("[Materialisation] Failed to load material pack: " + fileName, e);
+            source.failed = true;
+        }
+    }
+    
+    private static int indexOf(List<MaterialsPack> packs, MaterialsPack pack) {
+        for (int i = 0; i < packs.size(); i++)
+            if (packs.get(i) == pack)
+                return i;
+        throw new IllegalArgumentException("Unknown pack: " + pack.getIdentifier());
     }
     
     @SuppressWarnings("ResultOfMethodCallIgnored")
@@ -366,4 +644,15 @@ public class ConfigHelper implements ModifierIngredientsHandler {
         MODIFIER_LIST_MAP.get(modifier).add(ingredient);
     }
     
+    private static final class ResolvedMaterial {
+        private final List<JsonObject> overrides;
+        private final ConfigMaterial material;
+        private boolean failed;
+        
+        private ResolvedMaterial(List<JsonObject> overrides, ConfigMaterial material) {
+            this.overrides = overrides;
+            this.material = material;
+        }
+    }
+    
 }
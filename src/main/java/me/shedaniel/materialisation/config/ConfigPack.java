@@ -4,6 +4,7 @@ import me.shedaniel.materialisation.api.MaterialsPack;
 import me.shedaniel.materialisation.api.PartMaterial;
 import net.minecraft.util.Identifier;
 
+import java.util.Collections;
 import java.util.Map;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Stream;
@@ -58,4 +59,14 @@ public class ConfigPack implements MaterialsPack {
         return materialMap;
     }
     
+    /**
+     * @return a copy of this pack sharing its materials through an unmodifiable view
+     */
+    public ConfigPack asUnmodifiable() {
+        ConfigPack pack = new ConfigPack(configPackInfo, Collections.unmodifiableMap(materialMap));
+        pack.overrides.set(overrides.get());
+        pack.modifiers.set(modifiers.get());
+        return pack;
+    }
+    
 }
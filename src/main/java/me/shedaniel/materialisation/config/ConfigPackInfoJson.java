@@ -1,5 +1,11 @@
 package me.shedaniel.materialisation.config;
 
+import com.google.common.collect.Lists;
+
+import javax.annotation.Nullable;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.util.List;
 
 public class ConfigPackInfoJson {
@@ -17,4 +23,42 @@ public class ConfigPackInfoJson {
         }
         return info;
     }
+    
+    void write(DataOutput out) throws IOException {
+        PackCache.writeString(out, displayName);
+        PackCache.writeString(out, identifier);
+        writeList(out, requiredMods);
+        writeList(out, authors);
+        PackCache.writeString(out, version);
+        PackCache.writeString(out, description);
+    }
+    
+    static ConfigPackInfoJson read(DataInput in) throws IOException {
+        ConfigPackInfoJson json = new ConfigPackInfoJson();
+        json.displayName = PackCache.readString(in);
+        json.identifier = PackCache.readString(in);
+        json.requiredMods = readList(in);
+        json.authors = readList(in);
+        json.version = PackCache.readString(in);
+        json.description = PackCache.readString(in);
+        return json;
+    }
+    
+    private static void writeList(DataOutput out, @Nullable List<String> list) throws IOException {
+        out.writeInt(list == null ? -1 : list.size());
+        if (list != null)
+            for (String s : list)
+                PackCache.writeString(out, s);
+    }
+    
+    @Nullable
+    private static List<String> readList(DataInput in) throws IOException {
+        int size = in.readInt();
+        if (size < 0)
+            return null;
+        List<String> list = Lists.newArrayListWithCapacity(size);
+        for (int i = 0; i < size; i++)
+            list.add(PackCache.readString(in));
+        return list;
+    }
 }
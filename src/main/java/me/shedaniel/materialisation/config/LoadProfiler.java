@@ -0,0 +1,127 @@
+package me.shedaniel.materialisation.config;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import me.shedaniel.materialisation.Materialisation;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times the phases of a config load and the parsing of every entry of the materials directory.
+ * <p>
+ * A summary is logged after every load, {@code -Dmaterialisation.loadReport=true} also writes the full report to
+ * {@code config/materialisation/load-report.json}.
+ */
+final class LoadProfiler {
+    
+    private static final boolean REPORT = Boolean.getBoolean("materialisation.loadReport");
+    private static final File REPORT_FILE = new File(ConfigHelper.CONFIG_DIRECTORY, "load-report.json");
+    private final long start = System.nanoTime();
+    private final Map<Phase, Long> phases = Maps.newEnumMap(Phase.class);
+    private final List<FileTiming> files = Lists.newArrayList();
+    private long mark = start;
+    private boolean cached;
+    
+    /**
+     * Adds the time since the previous mark to the phase.
+     */
+    void mark(Phase phase) {
+        long now = System.nanoTime();
+        phases.merge(phase, now - mark, Long::sum);
+        mark = now;
+    }
+    
+    void file(String name, long nanos, long bytes) {
+        files.add(new FileTiming(name, nanos, bytes));
+    }
+    
+    void setCached(boolean cached) {
+        this.cached = cached;
+    }
+    
+    void finish(String action, int materials, int packs) {
+        long total = System.nanoTime() - start;
+        StringBuilder builder = new StringBuilder("[Materialisation] ").append(action).append(' ').append(materials).append(" material(s) in ").append(packs).append(" pack(s)");
+        if (cached)
+            builder.append(" from cache");
+        else if (!files.isEmpty())
+            builder.append(" from ").append(files.size()).append(" file(s), ").append(files.stream().mapToLong(timing -> timing.bytes).sum() / 1024).append(" KiB");
+        builder.append(" in ").append(millis(total)).append(" ms (");
+        boolean first = true;
+        for (Phase phase : Phase.values()) {
+            if (!first)
+                builder.append(", ");
+            builder.append(phase.name().toLowerCase(Locale.ROOT)).append(' ').append(millis(phases.getOrDefault(phase, 0L))).append(" ms");
+            first = false;
+        }
+        builder.append(')');
+        files.stream().max(Comparator.comparingLong(timing -> timing.nanos)).ifPresent(timing -> builder.append(", slowest file ").append(timing.name).append(" took ").append(millis(timing.nanos)).append(" ms"));
+        Materialisation.LOGGER.info(builder.append('.').toString());
+        if (REPORT)
+            writeReport(total, materials, packs);
+    }
+    
+    private void writeReport(long total, int materials, int packs) {
+        JsonObject report = new JsonObject();
+        report.addProperty("totalMillis", millis(total));
+        report.addProperty("materials", materials);
+        report.addProperty("packs", packs);
+        report.addProperty("cached", cached);
+        JsonObject phaseObject = new JsonObject();
+        for (Phase phase : Phase.values())
+            phaseObject.addProperty(phase.name().toLowerCase(Locale.ROOT) + "Millis", millis(phases.getOrDefault(phase, 0L)));
+        report.add("phases", phaseObject);
+        JsonArray fileArray = new JsonArray();
+        files.sort(Comparator.comparingLong((FileTiming timing) -> timing.nanos).reversed());
+        for (FileTiming timing : files) {
+            JsonObject fileObject = new JsonObject();
+            fileObject.addProperty("name", timing.name);
+            fileObject.addProperty("millis", millis(timing.nanos));
+            fileObject.addProperty("bytes", timing.bytes);
+            fileArray.add(fileObject);
+        }
+        report.add("files", fileArray);
+        try (Writer writer = Files.newBufferedWriter(REPORT_FILE.toPath(), StandardCharsets.UTF_8)) {
+            ConfigHelper.GSON.toJson(report, writer);
+        } catch (IOException e) {
+            Materialisation.LOGGER.warn("[Materialisation] Failed to write the load report.", e);
+        }
+    }
+    
+    private static double millis(long nanos) {
+        return Math.round(nanos / (double) TimeUnit.MILLISECONDS.toNanos(1) * 100) / 100d;
+    }
+    
+    enum Phase {
+        DISCOVERY,
+        PARSE,
+        OVERRIDES,
+        MODIFIERS,
+        PREDICATE,
+        REGISTRATION
+    }
+    
+    private static final class FileTiming {
+        private final String name;
+        private final long nanos;
+        private final long bytes;
+        
+        private FileTiming(String name, long nanos, long bytes) {
+            this.name = name;
+            this.nanos = nanos;
+            this.bytes = bytes;
+        }
+    }
+    
+}
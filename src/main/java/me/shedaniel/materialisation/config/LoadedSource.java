@@ -0,0 +1,39 @@
+package me.shedaniel.materialisation.config;
+
+import com.google.common.collect.Lists;
+import com.google.gson.JsonObject;
+import me.shedaniel.materialisation.config.MaterialisationConfig.ConfigMaterial;
+
+import javax.annotation.Nullable;
+import java.util.List;
+
+/**
+ * Everything parsed from one entry of the materials directory, kept apart until all entries are merged in order.
+ */
+class LoadedSource {
+    
+    /**
+     * The pack declared by this source, loose files go into the default pack.
+     */
+    @Nullable
+    ConfigPack pack;
+    @Nullable
+    ConfigPackInfoJson packInfo;
+    /**
+     * Whether anything in this source failed to load, such results are not written to the pack cache.
+     */
+    boolean failed;
+    /**
+     * Whether the predicate of the pack failed, the entries of disabled packs are never read.
+     */
+    boolean disabled;
+    /**
+     * Time spent reading this source and the size of everything read, for the load report.
+     */
+    long nanos;
+    long bytes;
+    final List<ConfigMaterial> materials = Lists.newArrayList();
+    final List<JsonObject> overrides = Lists.newArrayList();
+    final List<JsonObject> modifiers = Lists.newArrayList();
+    
+}
@@ -0,0 +1,148 @@
+package me.shedaniel.materialisation.config;
+
+import com.google.common.collect.Maps;
+import com.google.gson.*;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import me.shedaniel.materialisation.Materialisation;
+import me.shedaniel.materialisation.config.MaterialisationConfig.ConfigMaterial;
+
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+/**
+ * Reads entries of the materials directory, material files are streamed straight into {@link ConfigMaterial} while
+ * override and modifier files are kept as json trees.
+ */
+final class MaterialEntryReader {
+    
+    private static final JsonParser PARSER = new JsonParser();
+    private static final Map<String, Binding> BINDINGS = createBindings();
+    
+    private MaterialEntryReader() {
+    }
+    
+    private static Map<String, Binding> createBindings() {
+        Map<String, Binding> bindings = Maps.newHashMap();
+        for (Field field : ConfigMaterial.class.getDeclaredFields())
+            if (!Modifier.isStatic(field.getModifiers()) && !Modifier.isTransient(field.getModifiers()))
+                bindings.put(field.getName(), new Binding(field, ConfigHelper.GSON.getAdapter(TypeToken.get(field.getGenericType()))));
+        return bindings;
+    }
+    
+    static void read(LoadedSource source, String name, Path path) throws IOException {
+        try (JsonReader reader = open(path)) {
+            if (readStreaming(source, name, reader))
+                return;
+        }
+        // The entry turned out not to be a material after part of it was read as one, read it again as a tree
+        JsonObject object;
+        try (JsonReader reader = open(path)) {
+            object = PARSER.parse(reader).getAsJsonObject();
+        }
+        if (!object.has("type") || object.get("type").getAsString().equalsIgnoreCase("material")) {
+            Materialisation.LOGGER.debug("[Materialisation] Loading material file: " + name);
+            source.materials.add(ConfigHelper.GSON.fromJson(object, ConfigMaterial.class));
+        } else accept(source, name, object);
+    }
+    
+    private static JsonReader open(Path path) throws IOException {
+        JsonReader reader = new JsonReader(Files.newBufferedReader(path, StandardCharsets.UTF_8));
+        reader.setLenient(true);
+        return reader;
+    }
+    
+    /**
+     * @return false if the entry has to be read again as a tree
+     */
+    private static boolean readStreaming(LoadedSource source, String name, JsonReader reader) throws IOException {
+        ConfigMaterial material = null;
+        JsonObject object = null;
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String key = reader.nextName();
+            if (object != null) {
+                object.add(key, PARSER.parse(reader));
+            } else if (key.equals("type")) {
+                JsonElement type = PARSER.parse(reader);
+                if (type.getAsString().equalsIgnoreCase("material"))
+                    continue;
+                if (material != null)
+                    return false;
+                object = new JsonObject();
+                object.add(key, type);
+            } else {
+                Binding binding = BINDINGS.get(key);
+                if (binding == null)
+                    return false;
+                if (material == null)
+                    material = createMaterial();
+                try {
+                    binding.read(reader, material);
+                } catch (IllegalStateException | JsonParseException e) {
+                    return false;
+                }
+            }
+        }
+        reader.endObject();
+        if (object != null) {
+            accept(source, name, object);
+        } else {
+            Materialisation.LOGGER.debug("[Materialisation] Loading material file: " + name);
+            source.materials.add(material == null ? createMaterial() : material);
+        }
+        return true;
+    }
+    
+    private static ConfigMaterial createMaterial() {
+        ConfigMaterial material = new ConfigMaterial((String) null);
+        // Gson does not run the field initialisers of materials, flags missing from the file have to stay false here too
+        material.enabled = false;
+        return material;
+    }
+    
+    private static void accept(LoadedSource source, String name, JsonObject object) {
+        String type = object.get("type").getAsString();
+        if (type.equalsIgnoreCase("override")) {
+            Materialisation.LOGGER.debug("[Materialisation] Loading override file: " + name);
+            source.overrides.add(object);
+            if (source.pack != null)
+                source.pack.getOverrides().incrementAndGet();
+        } else if (type.equalsIgnoreCase("modifier")) {
+            Materialisation.LOGGER.debug("[Materialisation] Loading modifier file: " + name);
+            source.modifiers.add(object);
+            if (source.pack != null)
+                source.pack.getModifiers().incrementAndGet();
+        } else {
+            Materialisation.LOGGER.warn("[Materialisation] Cancelled loading unknown file: " + name);
+        }
+    }
+    
+    private static final class Binding {
+        private final Field field;
+        private final TypeAdapter<?> adapter;
+        
+        private Binding(Field field, TypeAdapter<?> adapter) {
+            this.field = field;
+            this.adapter = adapter;
+            field.setAccessible(true);
+        }
+        
+        private void read(JsonReader reader, ConfigMaterial material) throws IOException {
+            Object value = adapter.read(reader);
+            if (value == null && field.getType().isPrimitive())
+                return;
+            try {
+                field.set(material, value);
+            } catch (IllegalAccessException e) {
+                throw new AssertionError(e);
+            }
+        }
+    }
+    
+}
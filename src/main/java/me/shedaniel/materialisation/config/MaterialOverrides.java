@@ -0,0 +1,82 @@
+package me.shedaniel.materialisation.config;
+
+import com.google.common.collect.Maps;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.TypeAdapter;
+import com.google.gson.reflect.TypeToken;
+import me.shedaniel.materialisation.config.MaterialisationConfig.ConfigMaterial;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Applies override files to materials, the overridable fields are looked up once and values are converted to the type
+ * of their field.
+ */
+final class MaterialOverrides {
+    
+    private static final Map<String, Setter> SETTERS = createSetters();
+    
+    private MaterialOverrides() {
+    }
+    
+    private static Map<String, Setter> createSetters() {
+        Map<String, Setter> setters = Maps.newHashMap();
+        MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+        MethodType type = MethodType.methodType(void.class, ConfigMaterial.class, Object.class);
+        for (Field field : ConfigMaterial.class.getDeclaredFields())
+            if (Modifier.isPublic(field.getModifiers()) && !Modifier.isTransient(field.getModifiers()) && !Modifier.isStatic(field.getModifiers()))
+                try {
+                    MethodHandle handle = lookup.unreflectSetter(field).asType(type);
+                    // Override keys are case insensitive, the first declared field wins like before
+                    setters.putIfAbsent(field.getName().toLowerCase(Locale.ROOT), new Setter(field, handle, ConfigHelper.GSON.getAdapter(TypeToken.get(field.getGenericType()))));
+                } catch (IllegalAccessException e) {
+                    throw new IllegalStateException(e);
+                }
+        return setters;
+    }
+    
+    static void apply(ConfigMaterial material, JsonObject override) {
+        for (Map.Entry<String, JsonElement> entry : override.entrySet()) {
+            String key = entry.getKey();
+            if (key.equalsIgnoreCase("type") || key.equalsIgnoreCase("name") || key.equalsIgnoreCase("priority"))
+                continue;
+            Setter setter = SETTERS.get(key.toLowerCase(Locale.ROOT));
+            if (setter == null)
+                throw new NullPointerException("Failed to place field '" + key + "' of material " + material.getIdentifier().toString() + "!");
+            setter.set(material, entry.getValue());
+        }
+    }
+    
+    private static final class Setter {
+        private final Field field;
+        private final MethodHandle handle;
+        private final TypeAdapter<?> adapter;
+        
+        private Setter(Field field, MethodHandle handle, TypeAdapter<?> adapter) {
+            this.field = field;
+            this.handle = handle;
+            this.adapter = adapter;
+        }
+        
+        private void set(ConfigMaterial material, JsonElement element) {
+            Object value = adapter.fromJsonTree(element);
+            if (value == null && field.getType().isPrimitive())
+                throw new IllegalArgumentException("Field '" + field.getName() + "' of material " + material.getIdentifier().toString() + " cannot be null!");
+            try {
+                handle.invokeExact(material, value);
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable throwable) {
+                throw new IllegalStateException(throwable);
+            }
+        }
+    }
+    
+}
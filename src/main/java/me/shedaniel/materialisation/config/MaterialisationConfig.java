@@ -66,6 +66,10 @@ public class MaterialisationConfig {
         private transient Map<BetterIngredient, Float> ingredientFloatMap = null;
         private transient Identifier identifierCache = null;
         
+        ConfigMaterial(String name) {
+            this.name = name;
+        }
+        
         public ConfigMaterial(PartMaterial partMaterial) {
             this.toolColor = partMaterial.getToolColor() + "";
             this.color = partMaterial.getToolColor();
@@ -0,0 +1,104 @@
+package me.shedaniel.materialisation.config;
+
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import me.shedaniel.materialisation.Materialisation;
+
+import java.io.IOException;
+import java.nio.file.*;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static java.nio.file.StandardWatchEventKinds.*;
+
+/**
+ * Watches the materials directory and reloads the entries that changed, enabled with {@code -Dmaterialisation.watchMaterials=true}.
+ */
+public final class MaterialsWatcher implements Runnable {
+    
+    public static final boolean ENABLED = Boolean.getBoolean("materialisation.watchMaterials");
+    // Editors often write a file several times in a row, changes are batched until the directory is quiet for this long
+    private static final long QUIET_MILLIS = 500;
+    private final WatchService watchService;
+    private final Path root;
+    // Keys of pack directories, changes inside them reload the whole pack
+    private final Map<WatchKey, String> packKeys = Maps.newHashMap();
+    
+    private MaterialsWatcher(WatchService watchService, Path root) {
+        this.watchService = watchService;
+        this.root = root;
+    }
+    
+    public static void start() {
+        try {
+            Path root = ConfigHelper.MATERIALS_DIRECTORY.toPath();
+            MaterialsWatcher watcher = new MaterialsWatcher(root.getFileSystem().newWatchService(), root);
+            root.register(watcher.watchService, ENTRY_CREATE, ENTRY_DELETE, ENTRY_MODIFY);
+            try (DirectoryStream<Path> stream = Files.newDirectoryStream(root)) {
+                for (Path path : stream)
+                    watcher.registerPack(path);
+            }
+            Thread thread = new Thread(watcher, "Materialisation Watcher");
+            thread.setDaemon(true);
+            thread.start();
+            Materialisation.LOGGER.info("[Materialisation] Watching " + root + " for changes.");
+        } catch (IOException e) {
+            Materialisation.LOGGER.error("[Materialisation] Failed to watch the materials directory.", e);
+        }
+    }
+    
+    private void registerPack(Path path) throws IOException {
+        if (Files.isDirectory(path))
+            packKeys.put(path.register(watchService, ENTRY_CREATE, ENTRY_DELETE, ENTRY_MODIFY), path.getFileName().toString());
+    }
+    
+    @Override
+    public void run() {
+        try {
+            while (true) {
+                Set<String> changed = Sets.newLinkedHashSet();
+                WatchKey key = watchService.take();
+                while (key != null) {
+                    poll(key, changed);
+                    key = watchService.poll(QUIET_MILLIS, TimeUnit.MILLISECONDS);
+                }
+                if (!changed.isEmpty())
+                    ConfigHelper.reloadEntries(changed);
+            }
+        } catch (InterruptedException | ClosedWatchServiceException ignored) {
+        }
+    }
+    
+    private void poll(WatchKey key, Set<String> changed) {
+        String pack = packKeys.get(key);
+        boolean overflow = false;
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == OVERFLOW) {
+                overflow = true;
+                continue;
+            }
+            if (pack != null) {
+                changed.add(pack);
+                continue;
+            }
+            Path path = root.resolve((Path) event.context());
+            changed.add(path.getFileName().toString());
+            if (event.kind() == ENTRY_CREATE)
+                try {
+                    registerPack(path);
+                } catch (IOException e) {
+                    Materialisation.LOGGER.warn("[Materialisation] Failed to watch " + path + ".", e);
+                }
+        }
+        if (overflow) {
+            // Events were lost, every entry has to be checked again
+            String[] names = ConfigHelper.MATERIALS_DIRECTORY.list();
+            if (names != null)
+                changed.addAll(Sets.newHashSet(names));
+        }
+        if (!key.reset())
+            packKeys.remove(key);
+    }
+    
+}
@@ -0,0 +1,242 @@
+package me.shedaniel.materialisation.config;
+
+import com.google.common.collect.Lists;
+import com.google.common.hash.Funnels;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import com.google.common.io.Files;
+import me.shedaniel.materialisation.Materialisation;
+import me.shedaniel.materialisation.api.BetterIngredient;
+import me.shedaniel.materialisation.api.MaterialsPack;
+import me.shedaniel.materialisation.config.MaterialisationConfig.ConfigIngredient;
+import me.shedaniel.materialisation.config.MaterialisationConfig.ConfigIngredients;
+import me.shedaniel.materialisation.config.MaterialisationConfig.ConfigMaterial;
+import net.fabricmc.loader.api.FabricLoader;
+import net.fabricmc.loader.api.ModContainer;
+import net.minecraft.util.Pair;
+
+import javax.annotation.Nullable;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * A binary snapshot of the materials after all material files are parsed and overrides are applied, keyed by a hash of
+ * the materials directory and the default materials, so unchanged configs skip parsing on the next load.
+ */
+final class PackCache {
+    
+    private static final int MAGIC = 0x4D545043;
+    private static final int VERSION = 2;
+    private static final File CACHE_DIRECTORY = new File(ConfigHelper.CONFIG_DIRECTORY, ".cache");
+    private static final File CACHE_FILE = new File(CACHE_DIRECTORY, "packs.bin");
+    
+    private PackCache() {
+    }
+    
+    /**
+     * @param defaultMaterials the default materials before overrides, with their packs
+     * @param defaultPacks     the packs of the default material suppliers
+     */
+    static String computeKey(File directory, List<Pair<ConfigPack, ConfigMaterial>> defaultMaterials, List<MaterialsPack> defaultPacks) throws IOException {
+        Hasher hasher = Hashing.sha256().newHasher();
+        hasher.putInt(VERSION);
+        for (MaterialsPack pack : defaultPacks)
+            hasher.putString(pack.getIdentifier().toString(), StandardCharsets.UTF_8);
+        for (Pair<ConfigPack, ConfigMaterial> material : defaultMaterials) {
+            hasher.putString(material.getLeft().getIdentifier().toString(), StandardCharsets.UTF_8);
+            hasher.putString(ConfigHelper.GSON.toJson(material.getRight()), StandardCharsets.UTF_8);
+        }
+        // Packs are skipped depending on the loaded mods, so the cache is only valid for the same mods
+        List<String> mods = Lists.newArrayList();
+        for (ModContainer mod : FabricLoader.getInstance().getAllMods())
+            mods.add(mod.getMetadata().getId() + "@" + mod.getMetadata().getVersion().getFriendlyString());
+        mods.sort(Comparator.naturalOrder());
+        for (String mod : mods)
+            hasher.putString(mod, StandardCharsets.UTF_8);
+        hashFiles(hasher, directory);
+        return hasher.hash().toString();
+    }
+    
+    private static void hashFiles(Hasher hasher, File directory) throws IOException {
+        File[] files = directory.listFiles();
+        if (files == null)
+            return;
+        // Directory listings are not ordered, sorting keeps the key stable between boots
+        Arrays.sort(files, Comparator.comparing(File::getName));
+        for (File file : files) {
+            hasher.putString(file.getName(), StandardCharsets.UTF_8);
+            if (file.isDirectory()) {
+                hasher.putByte((byte) 1);
+                hashFiles(hasher, file);
+                hasher.putByte((byte) 2);
+            } else {
+                hasher.putLong(file.length());
+                Files.asByteSource(file).copyTo(Funnels.asOutputStream(hasher));
+            }
+        }
+    }
+    
+    @Nullable
+    static Snapshot read(String key) {
+        if (!CACHE_FILE.isFile())
+            return null;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(CACHE_FILE)))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION || !in.readUTF().equals(key))
+                return null;
+            Snapshot snapshot = new Snapshot();
+            int packs = in.readInt();
+            for (int i = 0; i < packs; i++)
+                snapshot.packs.add(new CachedPack(ConfigPackInfoJson.read(in), in.readInt(), in.readInt()));
+            int materials = in.readInt();
+            for (int i = 0; i < materials; i++)
+                snapshot.materials.add(new Pair<>(in.readInt(), readMaterial(in)));
+            int modifiers = in.readInt();
+            for (int i = 0; i < modifiers; i++)
+                snapshot.modifiers.add(readString(in));
+            return snapshot;
+        } catch (Exception e) {
+            Materialisation.LOGGER.warn("[Materialisation] Failed to read material cache, materials will be loaded from files.", e);
+            return null;
+        }
+    }
+    
+    static void write(String key, Snapshot snapshot) {
+        CACHE_DIRECTORY.mkdirs();
+        File temp = new File(CACHE_DIRECTORY, "packs.bin.tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temp)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeUTF(key);
+                out.writeInt(snapshot.packs.size());
+                for (CachedPack pack : snapshot.packs) {
+                    pack.info.write(out);
+                    out.writeInt(pack.overrides);
+                    out.writeInt(pack.modifiers);
+                }
+                out.writeInt(snapshot.materials.size());
+                for (Pair<Integer, ConfigMaterial> material : snapshot.materials) {
+                    out.writeInt(material.getLeft());
+                    writeMaterial(out, material.getRight());
+                }
+                out.writeInt(snapshot.modifiers.size());
+                for (String modifier : snapshot.modifiers)
+                    writeString(out, modifier);
+            }
+            try {
+                java.nio.file.Files.move(temp.toPath(), CACHE_FILE.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                java.nio.file.Files.move(temp.toPath(), CACHE_FILE.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (Exception e) {
+            Materialisation.LOGGER.warn("[Materialisation] Failed to write material cache.", e);
+            temp.delete();
+            CACHE_FILE.delete();
+        }
+    }
+    
+    private static void writeMaterial(DataOutput out, ConfigMaterial material) throws IOException {
+        writeString(out, material.name);
+        out.writeBoolean(material.enabled);
+        writeString(out, material.toolColor);
+        out.writeDouble(material.toolDurability);
+        out.writeDouble(material.miningLevel);
+        out.writeDouble(material.enchantability);
+        out.writeDouble(material.durabilityMultiplier);
+        out.writeDouble(material.breakingSpeedMultiplier);
+        out.writeDouble(material.toolSpeed);
+        out.writeDouble(material.attackDamage);
+        writeString(out, material.materialTranslationKey);
+        out.writeBoolean(material.bright);
+        out.writeInt(material.ingredients == null ? -1 : material.ingredients.size());
+        if (material.ingredients != null)
+            for (Object object : material.ingredients) {
+                // Anything else placed in here by other mods cannot be written
+                if (!(object instanceof ConfigIngredients))
+                    throw new IOException("Unexpected ingredient in " + material.name + ": " + object);
+                ConfigIngredients ingredients = (ConfigIngredients) object;
+                out.writeInt(ingredients.ingredient.type.ordinal());
+                writeString(out, ingredients.ingredient.content);
+                out.writeInt(ingredients.ingredient.count);
+                out.writeFloat(ingredients.multiplier);
+            }
+        out.writeDouble(material.fullAmount);
+    }
+    
+    private static ConfigMaterial readMaterial(DataInput in) throws IOException {
+        ConfigMaterial material = new ConfigMaterial(readString(in));
+        material.enabled = in.readBoolean();
+        material.toolColor = readString(in);
+        material.toolDurability = in.readDouble();
+        material.miningLevel = in.readDouble();
+        material.enchantability = in.readDouble();
+        material.durabilityMultiplier = in.readDouble();
+        material.breakingSpeedMultiplier = in.readDouble();
+        material.toolSpeed = in.readDouble();
+        material.attackDamage = in.readDouble();
+        material.materialTranslationKey = readString(in);
+        material.bright = in.readBoolean();
+        int ingredients = in.readInt();
+        if (ingredients >= 0) {
+            material.ingredients = Lists.newArrayListWithCapacity(ingredients);
+            for (int i = 0; i < ingredients; i++) {
+                BetterIngredient.Type type = BetterIngredient.Type.values()[in.readInt()];
+                ConfigIngredient ingredient = new ConfigIngredient(type, readString(in), in.readInt());
+                material.ingredients.add(new ConfigIngredients(ingredient, in.readFloat()));
+            }
+        } else material.ingredients = null;
+        material.fullAmount = in.readDouble();
+        return material;
+    }
+    
+    static void writeString(DataOutput out, @Nullable String string) throws IOException {
+        out.writeBoolean(string != null);
+        if (string != null) {
+            byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }
+    }
+    
+    @Nullable
+    static String readString(DataInput in) throws IOException {
+        if (!in.readBoolean())
+            return null;
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+    
+    static final class Snapshot {
+        /**
+         * The packs loaded from the materials directory, in load order.
+         */
+        final List<CachedPack> packs = Lists.newArrayList();
+        /**
+         * Materials with the index of their pack: 0 is the default pack, followed by the default supplier packs and then {@link #packs}.
+         */
+        final List<Pair<Integer, ConfigMaterial>> materials = Lists.newArrayList();
+        /**
+         * Modifier files from the materials directory, as json.
+         */
+        final List<String> modifiers = Lists.newArrayList();
+    }
+    
+    static final class CachedPack {
+        final ConfigPackInfoJson info;
+        final int overrides;
+        final int modifiers;
+        
+        CachedPack(ConfigPackInfoJson info, int overrides, int modifiers) {
+            this.info = info;
+            this.overrides = overrides;
+            this.modifiers = modifiers;
+        }
+    }
+    
+}
@@ -0,0 +1,55 @@
+package me.shedaniel.materialisation.config;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import me.shedaniel.materialisation.Materialisation;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Problems found while loading materials, collected so one bad file does not hide the others and logged once at the end.
+ */
+final class ValidationReport {
+    
+    private final Map<Problem, List<String>> problems = Maps.newEnumMap(Problem.class);
+    
+    void add(Problem problem, String message) {
+        problems.computeIfAbsent(problem, p -> Lists.newArrayList()).add(message);
+    }
+    
+    boolean isEmpty() {
+        return problems.isEmpty();
+    }
+    
+    int size() {
+        return problems.values().stream().mapToInt(List::size).sum();
+    }
+    
+    void log() {
+        if (problems.isEmpty())
+            return;
+        StringBuilder builder = new StringBuilder("[Materialisation] Found ").append(size()).append(" problem(s) while loading materials:");
+        for (Map.Entry<Problem, List<String>> entry : problems.entrySet()) {
+            builder.append("\n  ").append(entry.getKey().description).append(" (").append(entry.getValue().size()).append("):");
+            for (String message : entry.getValue())
+                builder.append("\n    - ").append(message);
+        }
+        Materialisation.LOGGER.warn(builder.toString());
+    }
+    
+    enum Problem {
+        DUPLICATE_PACK("Duplicate pack ids, only the first pack is loaded"),
+        DUPLICATE_MATERIAL("Duplicate material ids, only the first material is loaded"),
+        UNKNOWN_OVERRIDE_TARGET("Overrides of unknown materials"),
+        UNKNOWN_MODIFIER("Ingredients of unknown modifiers"),
+        BAD_COLOR("Materials with malformed colors");
+        
+        private final String description;
+        
+        Problem(String description) {
+            this.description = description;
+        }
+    }
+    
+}
@@ -1,10 +1,12 @@
 package me.shedaniel.materialisation.containers;
 
 import me.shedaniel.materialisation.Materialisation;
-import me.shedaniel.materialisation.MaterialisationUtils;
+import me.shedaniel.materialisation.api.MaterialIngredientIndex;
+import me.shedaniel.materialisation.api.MaterialisationSnapshot;
 import me.shedaniel.materialisation.api.PartMaterial;
-import me.shedaniel.materialisation.api.PartMaterials;
+import me.shedaniel.materialisation.api.PartRecipes;
 import me.shedaniel.materialisation.items.PatternItem;
+import me.shedaniel.materialisation.utils.InputFingerprint;
 import net.minecraft.container.BlockContext;
 import net.minecraft.container.Container;
 import net.minecraft.entity.player.PlayerEntity;
@@ -16,7 +18,7 @@ import net.minecraft.item.ItemStack;
 import net.minecraft.screen.slot.Slot;
 import net.minecraft.util.math.MathHelper;
 
-import java.util.stream.Collectors;
+import javax.annotation.Nullable;
 
 public class MaterialPreparerContainer extends Container {
     
@@ -25,6 +27,8 @@ public class MaterialPreparerContainer extends Container {
     private BlockContext context;
     private String itemName;
     private int takingFirst, takingSecond;
+    @Nullable
+    private InputFingerprint lastInputs;
     
     public MaterialPreparerContainer(int syncId, PlayerInventory main) {
         this(syncId, main, BlockContext.EMPTY);
@@ -91,162 +95,32 @@ public class MaterialPreparerContainer extends Container {
     }
     
     private void updateResult() {
-        takingFirst = 0;
-        takingSecond = 0;
         ItemStack first = this.main.getInvStack(0);
         ItemStack second = this.main.getInvStack(1);
+        // Writes to the result and repeated change events leave the inputs as they were, the result would not change
+        InputFingerprint inputs = InputFingerprint.of(MaterialisationSnapshot.get().getGeneration(), null, first, second);
+        if (inputs.equals(lastInputs))
+            return;
+        lastInputs = inputs;
+        takingFirst = 0;
+        takingSecond = 0;
+        PartRecipes.PatternRecipe recipe;
         if (first.isEmpty() || second.isEmpty()) {
             this.result.setInvStack(0, ItemStack.EMPTY);
-        } else if (first.getItem() instanceof PatternItem && first.getItem() != Materialisation.BLANK_PATTERN) {
-            if (first.getItem() == Materialisation.PICKAXE_HEAD_PATTERN) {
-                PartMaterial material = null;
-                float repairMultiplier = -1;
-                for (PartMaterial partMaterial : PartMaterials.getKnownMaterials().collect(Collectors.toList())) {
-                    float repairAmount = partMaterial.getRepairMultiplier(second);
-                    if (repairAmount > 0) {
-                        material = partMaterial;
-                        repairMultiplier = repairAmount;
-                    }
-                }
-                if (material == null || repairMultiplier <= 0)
-                    this.result.setInvStack(0, ItemStack.EMPTY);
-                else {
-                    int itemsNeeded = MathHelper.ceil(4 / repairMultiplier);
-                    takingSecond = itemsNeeded;
-                    if (second.getCount() < itemsNeeded) {
-                        this.result.setInvStack(0, ItemStack.EMPTY);
-                    } else {
-                        this.result.setInvStack(0, MaterialisationUtils.createPickaxeHead(material));
-                    }
-                }
-            } else if (first.getItem() == Materialisation.TOOL_HANDLE_PATTERN) {
-                PartMaterial material = null;
-                float repairMultiplier = -1;
-                for (PartMaterial partMaterial : PartMaterials.getKnownMaterials().collect(Collectors.toList())) {
-                    float repairAmount = partMaterial.getRepairMultiplier(second);
-                    if (repairAmount > 0) {
-                        material = partMaterial;
-                        repairMultiplier = repairAmount;
-                    }
-                }
-                if (material == null || repairMultiplier <= 0)
-                    this.result.setInvStack(0, ItemStack.EMPTY);
-                else {
-                    int itemsNeeded = MathHelper.ceil(1 / repairMultiplier);
-                    takingSecond = itemsNeeded;
-                    if (second.getCount() < itemsNeeded) {
-                        this.result.setInvStack(0, ItemStack.EMPTY);
-                    } else {
-                        this.result.setInvStack(0, MaterialisationUtils.createToolHandle(material));
-                    }
-                }
-            } else if (first.getItem() == Materialisation.AXE_HEAD_PATTERN) {
-                PartMaterial material = null;
-                float repairMultiplier = -1;
-                for (PartMaterial partMaterial : PartMaterials.getKnownMaterials().collect(Collectors.toList())) {
-                    float repairAmount = partMaterial.getRepairMultiplier(second);
-                    if (repairAmount > 0) {
-                        material = partMaterial;
-                        repairMultiplier = repairAmount;
-                    }
-                }
-                if (material == null || repairMultiplier <= 0)
-                    this.result.setInvStack(0, ItemStack.EMPTY);
-                else {
-                    int itemsNeeded = MathHelper.ceil(4 / repairMultiplier);
-                    takingSecond = itemsNeeded;
-                    if (second.getCount() < itemsNeeded) {
-                        this.result.setInvStack(0, ItemStack.EMPTY);
-                    } else {
-                        this.result.setInvStack(0, MaterialisationUtils.createAxeHead(material));
-                    }
-                }
-            } else if (first.getItem() == Materialisation.SHOVEL_HEAD_PATTERN) {
-                PartMaterial material = null;
-                float repairMultiplier = -1;
-                for (PartMaterial partMaterial : PartMaterials.getKnownMaterials().collect(Collectors.toList())) {
-                    float repairAmount = partMaterial.getRepairMultiplier(second);
-                    if (repairAmount > 0) {
-                        material = partMaterial;
-                        repairMultiplier = repairAmount;
-                    }
-                }
-                if (material == null || repairMultiplier <= 0)
-                    this.result.setInvStack(0, ItemStack.EMPTY);
-                else {
-                    int itemsNeeded = MathHelper.ceil(4 / repairMultiplier);
-                    takingSecond = itemsNeeded;
-                    if (second.getCount() < itemsNeeded) {
-                        this.result.setInvStack(0, ItemStack.EMPTY);
-                    } else {
-                        this.result.setInvStack(0, MaterialisationUtils.createShovelHead(material));
-                    }
-                }
-            } else if (first.getItem() == Materialisation.SWORD_BLADE_PATTERN) {
-                PartMaterial material = null;
-                float repairMultiplier = -1;
-                for (PartMaterial partMaterial : PartMaterials.getKnownMaterials().collect(Collectors.toList())) {
-                    float repairAmount = partMaterial.getRepairMultiplier(second);
-                    if (repairAmount > 0) {
-                        material = partMaterial;
-                        repairMultiplier = repairAmount;
-                    }
-                }
-                if (material == null || repairMultiplier <= 0)
-                    this.result.setInvStack(0, ItemStack.EMPTY);
-                else {
-                    int itemsNeeded = MathHelper.ceil(4 / repairMultiplier);
-                    takingSecond = itemsNeeded;
-                    if (second.getCount() < itemsNeeded) {
-                        this.result.setInvStack(0, ItemStack.EMPTY);
-                    } else {
-                        this.result.setInvStack(0, MaterialisationUtils.createSwordBlade(material));
-                    }
-                }
-            } else if (first.getItem() == Materialisation.HAMMER_HEAD_PATTERN) {
-                PartMaterial material = null;
-                float repairMultiplier = -1;
-                for (PartMaterial partMaterial : PartMaterials.getKnownMaterials().collect(Collectors.toList())) {
-                    float repairAmount = partMaterial.getRepairMultiplier(second);
-                    if (repairAmount > 0) {
-                        material = partMaterial;
-                        repairMultiplier = repairAmount;
-                    }
-                }
-                if (material == null || repairMultiplier <= 0)
-                    this.result.setInvStack(0, ItemStack.EMPTY);
-                else {
-                    int itemsNeeded = MathHelper.ceil(16 / repairMultiplier);
-                    takingSecond = itemsNeeded;
-                    if (second.getCount() < itemsNeeded) {
-                        this.result.setInvStack(0, ItemStack.EMPTY);
-                    } else {
-                        this.result.setInvStack(0, MaterialisationUtils.createHammerHead(material));
-                    }
-                }
-            } else if (first.getItem() == Materialisation.MEGAAXE_HEAD_PATTERN) {
-                PartMaterial material = null;
-                float repairMultiplier = -1;
-                for (PartMaterial partMaterial : PartMaterials.getKnownMaterials().collect(Collectors.toList())) {
-                    float repairAmount = partMaterial.getRepairMultiplier(second);
-                    if (repairAmount > 0) {
-                        material = partMaterial;
-                        repairMultiplier = repairAmount;
-                    }
-                }
-                if (material == null || repairMultiplier <= 0)
+        } else if ((recipe = PartRecipes.getPattern(first.getItem())) != null) {
+            MaterialIngredientIndex.Entry entry = MaterialisationSnapshot.get().getMaterialIngredientIndex().find(second);
+            PartMaterial material = entry == null ? null : entry.getMaterial();
+            float repairMultiplier = entry == null ? -1 : entry.getMultiplier();
+            if (material == null || repairMultiplier <= 0)
+                this.result.setInvStack(0, ItemStack.EMPTY);
+            else {
+                int itemsNeeded = MathHelper.ceil(recipe.getCost() / repairMultiplier);
+                takingSecond = itemsNeeded;
+                if (second.getCount() < itemsNeeded) {
                     this.result.setInvStack(0, ItemStack.EMPTY);
-                else {
-                    int itemsNeeded = MathHelper.ceil(64 / repairMultiplier);
-                    takingSecond = itemsNeeded;
-                    if (second.getCount() < itemsNeeded) {
-                        this.result.setInvStack(0, ItemStack.EMPTY);
-                    } else {
-                        this.result.setInvStack(0, MaterialisationUtils.createMegaAxeHead(material));
-                    }
+                } else {
+                    this.result.setInvStack(0, recipe.create(material));
                 }
-            } else {
-                this.result.setInvStack(0, ItemStack.EMPTY);
             }
         } else {
             this.result.setInvStack(0, ItemStack.EMPTY);
@@ -4,11 +4,15 @@ import io.netty.buffer.Unpooled;
 import me.shedaniel.materialisation.Materialisation;
 import me.shedaniel.materialisation.MaterialisationUtils;
 import me.shedaniel.materialisation.api.BetterIngredient;
+import me.shedaniel.materialisation.api.MaterialisationSnapshot;
 import me.shedaniel.materialisation.api.Modifier;
 import me.shedaniel.materialisation.api.ModifierIngredient;
+import me.shedaniel.materialisation.api.ModifierLevels;
 import me.shedaniel.materialisation.api.PartMaterial;
+import me.shedaniel.materialisation.api.PartRecipes;
 import me.shedaniel.materialisation.items.MaterialisedMiningTool;
 import me.shedaniel.materialisation.modifiers.Modifiers;
+import me.shedaniel.materialisation.utils.InputFingerprint;
 import net.fabricmc.fabric.api.network.ServerSidePacketRegistry;
 import net.minecraft.container.BlockContext;
 import net.minecraft.container.Container;
@@ -22,9 +26,10 @@ import net.minecraft.network.PacketByteBuf;
 import net.minecraft.screen.slot.Slot;
 import net.minecraft.text.LiteralText;
 import net.minecraft.util.Pair;
+import net.minecraft.util.math.MathHelper;
 import org.apache.commons.lang3.StringUtils;
 
-import java.util.Map;
+import javax.annotation.Nullable;
 import java.util.Optional;
 
 public class MaterialisingTableContainer extends Container {
@@ -34,6 +39,8 @@ public class MaterialisingTableContainer extends Container {
     private BlockContext context;
     private String itemName;
     private int nextDecrease;
+    @Nullable
+    private InputFingerprint lastInputs;
     
     public MaterialisingTableContainer(int syncId, PlayerInventory main) {
         this(syncId, main, BlockContext.EMPTY);
@@ -113,37 +120,38 @@ public class MaterialisingTableContainer extends Container {
     private void updateResult() {
         ItemStack first = this.main.getInvStack(0);
         ItemStack second = this.main.getInvStack(1);
+        // Writes to the result and repeated change events leave the inputs as they were, the result would not change
+        InputFingerprint inputs = InputFingerprint.of(MaterialisationSnapshot.get().getGeneration(), itemName, first, second);
+        if (inputs.equals(lastInputs))
+            return;
+        lastInputs = inputs;
+        PartRecipes.ToolRecipe recipe;
         if (first.isEmpty()) {
             this.result.setInvStack(0, ItemStack.EMPTY);
         } else if (first.getItem() instanceof MaterialisedMiningTool
-                   && first.getOrCreateTag().contains("mt_0_material")
-                   && first.getOrCreateTag().contains("mt_1_material")
+                   && MaterialisationUtils.hasMaterial(first.getTag(), 0)
+                   && MaterialisationUtils.hasMaterial(first.getTag(), 1)
         ) {
             // Modifiers
             if (!second.isEmpty()) {
                 ItemStack copy = first.copy();
-                Map<Modifier, Integer> modifierIntegerMap = MaterialisationUtils.getToolModifiers(copy);
-                for (Modifier modifier : Materialisation.MODIFIERS) {
-                    Integer currentLevel = modifierIntegerMap.getOrDefault(modifier, 0);
-                    if (modifier.isApplicableTo(copy) && modifier.getMaximumLevel(copy) > currentLevel) {
-                        int nextLevel = currentLevel + 1;
-                        Optional<Pair<Modifier, Pair<ModifierIngredient, BetterIngredient>>> modifierOptional
-                                = Modifiers.getModifierByIngredient(second, modifier, nextLevel);
-                        if (modifierOptional.isPresent()) {
-                            MaterialisedMiningTool tool = (MaterialisedMiningTool) copy.getItem();
-                            int maximumLevel = modifier.getMaximumLevel(first);
-                            int level = tool.getModifierLevel(first, modifier);
-                            tool.setModifierLevel(copy, modifier, level + 1);
-                            if (level + 1 <= maximumLevel || MaterialisationUtils.getToolMaxDurability(copy) >= 1) {
-                                nextDecrease = modifierOptional.get().getRight().getRight().count;
-                                this.result.setInvStack(0, copy);
-                            } else {
-                                this.result.setInvStack(0, ItemStack.EMPTY);
-                            }
-                            this.sendContentUpdates();
-                            return;
-                        }
+                ModifierLevels modifierLevels = MaterialisationUtils.getToolModifierLevels(copy);
+                Optional<Pair<Modifier, Pair<ModifierIngredient, BetterIngredient>>> modifierOptional
+                        = Modifiers.getUpgradeByIngredient(copy, modifierLevels, second);
+                if (modifierOptional.isPresent()) {
+                    Modifier modifier = modifierOptional.get().getLeft();
+                    MaterialisedMiningTool tool = (MaterialisedMiningTool) copy.getItem();
+                    int maximumLevel = modifier.getMaximumLevel(first);
+                    int level = tool.getModifierLevel(first, modifier);
+                    tool.setModifierLevel(copy, modifier, level + 1);
+                    if (level + 1 <= maximumLevel || MaterialisationUtils.getToolMaxDurability(copy) >= 1) {
+                        nextDecrease = modifierOptional.get().getRight().getRight().count;
+                        this.result.setInvStack(0, copy);
+                    } else {
+                        this.result.setInvStack(0, ItemStack.EMPTY);
                     }
+                    this.sendContentUpdates();
+                    return;
                 }
             }
             
@@ -158,15 +166,14 @@ public class MaterialisingTableContainer extends Container {
                     this.sendContentUpdates();
                     return;
                 }
-                PartMaterial material = null;
-                if (copy.getOrCreateTag().contains("mt_1_material"))
-                    material = MaterialisationUtils.getMaterialFromString(copy.getOrCreateTag().getString("mt_1_material"));
+                PartMaterial material = MaterialisationUtils.getMaterial(copy.getTag(), 1);
                 if (material == null) {
                     this.result.setInvStack(0, ItemStack.EMPTY);
                     this.sendContentUpdates();
                     return;
                 }
-                int repairAmount = material.getRepairAmount(second);
+                float multiplier = MaterialisationSnapshot.get().getMaterialIngredientIndex().getMultiplier(material, second);
+                int repairAmount = multiplier < 0 ? -1 : MathHelper.ceil(material.getFullAmount() * multiplier);
                 if (repairAmount <= 0) {
                     this.result.setInvStack(0, ItemStack.EMPTY);
                     this.sendContentUpdates();
@@ -184,139 +191,19 @@ public class MaterialisingTableContainer extends Container {
                     copy.setCustomName(new LiteralText(this.itemName));
             nextDecrease = 1;
             this.result.setInvStack(0, copy);
-        } else if ((first.getItem() == Materialisation.PICKAXE_HEAD && second.getItem() == Materialisation.HANDLE) || (first.getItem() == Materialisation.HANDLE && second.getItem() == Materialisation.PICKAXE_HEAD)) {
-            // Crafting a pickaxe
-            int handle = 0, head = 0;
-            if (first.getItem() == Materialisation.HANDLE)
-                head = 1;
-            else if (first.getItem() == Materialisation.PICKAXE_HEAD)
-                handle = 1;
-            PartMaterial handleMaterial = MaterialisationUtils.getMaterialFromPart(main.getInvStack(handle));
-            PartMaterial headMaterial = MaterialisationUtils.getMaterialFromPart(main.getInvStack(head));
-            if (handleMaterial == null || headMaterial == null) {
-                this.result.setInvStack(0, ItemStack.EMPTY);
-            } else {
-                ItemStack copy = MaterialisationUtils.createPickaxe(handleMaterial, headMaterial);
-                if (StringUtils.isBlank(this.itemName)) {
-                    if (copy.hasCustomName())
-                        copy.removeCustomName();
-                } else if (!this.itemName.equals(copy.getName().getString()))
-                    if (itemName.equals(copy.getItem().getName(copy).getString()))
-                        copy.removeCustomName();
-                    else
-                        copy.setCustomName(new LiteralText(this.itemName));
-                nextDecrease = 1;
-                this.result.setInvStack(0, copy);
-            }
-        } else if ((first.getItem() == Materialisation.AXE_HEAD && second.getItem() == Materialisation.HANDLE) || (first.getItem() == Materialisation.HANDLE && second.getItem() == Materialisation.AXE_HEAD)) {
-            // Crafting an axe
-            int handle = 0, head = 0;
-            if (first.getItem() == Materialisation.HANDLE)
-                head = 1;
-            else if (first.getItem() == Materialisation.AXE_HEAD)
-                handle = 1;
-            PartMaterial handleMaterial = MaterialisationUtils.getMaterialFromPart(main.getInvStack(handle));
-            PartMaterial headMaterial = MaterialisationUtils.getMaterialFromPart(main.getInvStack(head));
-            if (handleMaterial == null || headMaterial == null) {
-                this.result.setInvStack(0, ItemStack.EMPTY);
-            } else {
-                ItemStack copy = MaterialisationUtils.createAxe(handleMaterial, headMaterial);
-                if (StringUtils.isBlank(this.itemName)) {
-                    if (copy.hasCustomName())
-                        copy.removeCustomName();
-                } else if (!this.itemName.equals(copy.getName().getString()))
-                    if (itemName.equals(copy.getItem().getName(copy).getString()))
-                        copy.removeCustomName();
-                    else
-                        copy.setCustomName(new LiteralText(this.itemName));
-                nextDecrease = 1;
-                this.result.setInvStack(0, copy);
-            }
-        } else if ((first.getItem() == Materialisation.SHOVEL_HEAD && second.getItem() == Materialisation.HANDLE) || (first.getItem() == Materialisation.HANDLE && second.getItem() == Materialisation.SHOVEL_HEAD)) {
-            // Crafting a shovel
-            int handle = 0, head = 0;
-            if (first.getItem() == Materialisation.HANDLE)
-                head = 1;
-            else if (first.getItem() == Materialisation.SHOVEL_HEAD)
-                handle = 1;
-            PartMaterial handleMaterial = MaterialisationUtils.getMaterialFromPart(main.getInvStack(handle));
-            PartMaterial headMaterial = MaterialisationUtils.getMaterialFromPart(main.getInvStack(head));
-            if (handleMaterial == null || headMaterial == null) {
-                this.result.setInvStack(0, ItemStack.EMPTY);
-            } else {
-                ItemStack copy = MaterialisationUtils.createShovel(handleMaterial, headMaterial);
-                if (StringUtils.isBlank(this.itemName)) {
-                    if (copy.hasCustomName())
-                        copy.removeCustomName();
-                } else if (!this.itemName.equals(copy.getName().getString()))
-                    if (itemName.equals(copy.getItem().getName(copy).getString()))
-                        copy.removeCustomName();
-                    else
-                        copy.setCustomName(new LiteralText(this.itemName));
-                nextDecrease = 1;
-                this.result.setInvStack(0, copy);
-            }
-        } else if ((first.getItem() == Materialisation.SWORD_BLADE && second.getItem() == Materialisation.HANDLE) || (first.getItem() == Materialisation.HANDLE && second.getItem() == Materialisation.SWORD_BLADE)) {
-            // Crafting a sword
-            int handle = 0, head = 0;
-            if (first.getItem() == Materialisation.HANDLE)
-                head = 1;
-            else if (first.getItem() == Materialisation.SWORD_BLADE)
-                handle = 1;
-            PartMaterial handleMaterial = MaterialisationUtils.getMaterialFromPart(main.getInvStack(handle));
-            PartMaterial headMaterial = MaterialisationUtils.getMaterialFromPart(main.getInvStack(head));
-            if (handleMaterial == null || headMaterial == null) {
-                this.result.setInvStack(0, ItemStack.EMPTY);
-            } else {
-                ItemStack copy = MaterialisationUtils.createSword(handleMaterial, headMaterial);
-                if (StringUtils.isBlank(this.itemName)) {
-                    if (copy.hasCustomName())
-                        copy.removeCustomName();
-                } else if (!this.itemName.equals(copy.getName().getString()))
-                    if (itemName.equals(copy.getItem().getName(copy).getString()))
-                        copy.removeCustomName();
-                    else
-                        copy.setCustomName(new LiteralText(this.itemName));
-                nextDecrease = 1;
-                this.result.setInvStack(0, copy);
-            }
-        } else if ((first.getItem() == Materialisation.MEGAAXE_HEAD && second.getItem() == Materialisation.HANDLE) || (first.getItem() == Materialisation.HANDLE && second.getItem() == Materialisation.MEGAAXE_HEAD)) {
-            // Crafting a mega axe
-            int handle = 0, head = 0;
-            if (first.getItem() == Materialisation.HANDLE)
-                head = 1;
-            else if (first.getItem() == Materialisation.MEGAAXE_HEAD)
-                handle = 1;
-            PartMaterial handleMaterial = MaterialisationUtils.getMaterialFromPart(main.getInvStack(handle));
-            PartMaterial headMaterial = MaterialisationUtils.getMaterialFromPart(main.getInvStack(head));
-            if (handleMaterial == null || headMaterial == null) {
-                this.result.setInvStack(0, ItemStack.EMPTY);
-            } else {
-                ItemStack copy = MaterialisationUtils.createMegaAxe(handleMaterial, headMaterial);
-                if (StringUtils.isBlank(this.itemName)) {
-                    if (copy.hasCustomName())
-                        copy.removeCustomName();
-                } else if (!this.itemName.equals(copy.getName().getString()))
-                    if (itemName.equals(copy.getItem().getName(copy).getString()))
-                        copy.removeCustomName();
-                    else
-                        copy.setCustomName(new LiteralText(this.itemName));
-                nextDecrease = 1;
-                this.result.setInvStack(0, copy);
-            }
-        } else if ((first.getItem() == Materialisation.HAMMER_HEAD && second.getItem() == Materialisation.HANDLE) || (first.getItem() == Materialisation.HANDLE && second.getItem() == Materialisation.HAMMER_HEAD)) {
-            // Crafting a hammer
+        } else if ((recipe = PartRecipes.getTool(first.getItem(), second.getItem())) != null) {
+            // Crafting a tool
             int handle = 0, head = 0;
-            if (first.getItem() == Materialisation.HANDLE)
+            if (first.getItem() == recipe.getHandle())
                 head = 1;
-            else if (first.getItem() == Materialisation.HAMMER_HEAD)
+            else
                 handle = 1;
             PartMaterial handleMaterial = MaterialisationUtils.getMaterialFromPart(main.getInvStack(handle));
             PartMaterial headMaterial = MaterialisationUtils.getMaterialFromPart(main.getInvStack(head));
             if (handleMaterial == null || headMaterial == null) {
                 this.result.setInvStack(0, ItemStack.EMPTY);
             } else {
-                ItemStack copy = MaterialisationUtils.createHammer(handleMaterial, headMaterial);
+                ItemStack copy = recipe.create(handleMaterial, headMaterial);
                 if (StringUtils.isBlank(this.itemName)) {
                     if (copy.hasCustomName())
                         copy.removeCustomName();
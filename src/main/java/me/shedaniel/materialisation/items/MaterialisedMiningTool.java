@@ -1,18 +1,17 @@
 package me.shedaniel.materialisation.items;
 
-import com.google.common.collect.ImmutableMultimap;
 import com.google.common.collect.Multimap;
 import me.shedaniel.materialisation.Materialisation;
 import me.shedaniel.materialisation.MaterialisationUtils;
 import me.shedaniel.materialisation.api.Modifier;
 import me.shedaniel.materialisation.api.ToolType;
+import me.shedaniel.materialisation.utils.ToolStatsSlot;
 import net.fabricmc.fabric.api.tool.attribute.v1.DynamicAttributeTool;
 import net.minecraft.block.BlockState;
 import net.minecraft.entity.EquipmentSlot;
 import net.minecraft.entity.LivingEntity;
 import net.minecraft.entity.attribute.EntityAttribute;
 import net.minecraft.entity.attribute.EntityAttributeModifier;
-import net.minecraft.entity.attribute.EntityAttributes;
 import net.minecraft.item.Item;
 import net.minecraft.item.ItemStack;
 import net.minecraft.nbt.CompoundTag;
@@ -98,17 +97,17 @@ public interface MaterialisedMiningTool extends DynamicAttributeTool {
     
     default void setModifierLevel(ItemStack stack, Identifier modifier, int level) {
         CompoundTag tag = stack.getOrCreateTag();
+        MaterialisationUtils.migrateMaterials(tag);
         if (!tag.contains("modifiers"))
             tag.put("modifiers", new CompoundTag());
         CompoundTag modifiers = tag.getCompound("modifiers");
         modifiers.putInt(modifier.toString(), level);
+        // The modifiers compound was written to in place, the stack's stats are not checked for that
+        ToolStatsSlot.invalidate(stack);
     }
     
     @Override
     default Multimap<EntityAttribute, EntityAttributeModifier> getDynamicModifiers(EquipmentSlot slot, ItemStack stack, LivingEntity user) {
-        ImmutableMultimap.Builder<EntityAttribute, EntityAttributeModifier> builder = ImmutableMultimap.builder();
-        double attackDamage = MaterialisationUtils.getToolDurability(stack) > 0 ? MaterialisationUtils.getToolAttackDamage(stack) : -10000;
-        builder.put(EntityAttributes.GENERIC_ATTACK_DAMAGE, new EntityAttributeModifier(MaterialisationUtils.getItemModifierDamage(), "Tool modifier", attackDamage, EntityAttributeModifier.Operation.ADDITION));
-        return builder.build();
+        return MaterialisationUtils.getToolStats(stack).getAttributeModifiers(slot);
     }
 }
@@ -1,20 +1,29 @@
 package me.shedaniel.materialisation.mixin;
 
 import me.shedaniel.materialisation.MaterialisationUtils;
+import me.shedaniel.materialisation.api.ToolStats;
 import me.shedaniel.materialisation.items.MaterialisedMiningTool;
+import me.shedaniel.materialisation.utils.ToolStatsSlot;
 import net.minecraft.item.Item;
 import net.minecraft.item.ItemStack;
 import net.minecraft.nbt.CompoundTag;
 import net.minecraft.util.math.MathHelper;
 import org.spongepowered.asm.mixin.Mixin;
 import org.spongepowered.asm.mixin.Shadow;
+import org.spongepowered.asm.mixin.Unique;
 import org.spongepowered.asm.mixin.injection.At;
 import org.spongepowered.asm.mixin.injection.Inject;
 import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
 import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
 
+import javax.annotation.Nullable;
+
 @Mixin(ItemStack.class)
-public abstract class MixinItemStack {
+public abstract class MixinItemStack implements ToolStatsSlot.Holder {
+    
+    @Unique
+    @Nullable
+    private ToolStatsSlot materialisation_toolStatsSlot;
     
     @Shadow
     public abstract Item getItem();
@@ -30,7 +39,7 @@ public abstract class MixinItemStack {
         if (getItem() instanceof MaterialisedMiningTool)
             callbackInfo.setReturnValue(false);
     }
-
+    
 //    @Inject(method = "getAttributeModifiers", at = @At(value = "INVOKE",
 //                                                       target = "Lnet/minecraft/item/Item;getModifiers(Lnet/minecraft/entity/EquipmentSlot;)Lcom/google/common/collect/Multimap;",
 //                                                       shift = At.Shift.BEFORE), cancellable = true)
@@ -58,8 +67,8 @@ public abstract class MixinItemStack {
     @Inject(method = "getDamage", at = @At("HEAD"), cancellable = true)
     public void getDamage(CallbackInfoReturnable<Integer> returnable) {
         if (getItem() instanceof MaterialisedMiningTool) {
-            int maxDurability = MaterialisationUtils.getToolMaxDurability((ItemStack) (Object) this);
-            returnable.setReturnValue(maxDurability - MaterialisationUtils.getToolDurability((ItemStack) (Object) this) - 1);
+            ToolStats stats = MaterialisationUtils.getToolStats((ItemStack) (Object) this);
+            returnable.setReturnValue(stats.getMaxDurability() - stats.getDurability() - 1);
         }
     }
     
@@ -78,4 +87,20 @@ public abstract class MixinItemStack {
         }
     }
     
+    @Inject(method = "setTag", at = @At("HEAD"))
+    private void onSetTag(CompoundTag tag, CallbackInfo info) {
+        materialisation_toolStatsSlot = null;
+    }
+    
+    @Nullable
+    @Override
+    public ToolStatsSlot materialisation_getToolStatsSlot() {
+        return materialisation_toolStatsSlot;
+    }
+    
+    @Override
+    public void materialisation_setToolStatsSlot(@Nullable ToolStatsSlot slot) {
+        this.materialisation_toolStatsSlot = slot;
+    }
+    
 }
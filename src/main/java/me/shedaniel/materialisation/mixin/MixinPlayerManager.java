@@ -0,0 +1,20 @@
+package me.shedaniel.materialisation.mixin;
+
+import me.shedaniel.materialisation.utils.MaterialPalette;
+import net.minecraft.network.ClientConnection;
+import net.minecraft.server.PlayerManager;
+import net.minecraft.server.network.ServerPlayerEntity;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+
+@Mixin(PlayerManager.class)
+public class MixinPlayerManager {
+    @Inject(method = "onPlayerConnect", at = @At("TAIL"))
+    private void onPlayerConnect(ClientConnection connection, ServerPlayerEntity player, CallbackInfo callbackInfo) {
+        MaterialPalette palette = MaterialPalette.getServerPalette();
+        if (palette != null)
+            palette.sendTo(player);
+    }
+}
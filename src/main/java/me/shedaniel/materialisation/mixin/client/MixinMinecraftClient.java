@@ -0,0 +1,24 @@
+package me.shedaniel.materialisation.mixin.client;
+
+import me.shedaniel.materialisation.MaterialisationUtils;
+import me.shedaniel.materialisation.utils.MaterialPalette;
+import net.minecraft.client.MinecraftClient;
+import net.minecraft.client.gui.screen.Screen;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+
+@Mixin(MinecraftClient.class)
+public class MixinMinecraftClient {
+    
+    /**
+     * The palette belongs to the server that sent it, ids of the next server must not resolve against it
+     */
+    @Inject(method = "disconnect(Lnet/minecraft/client/gui/screen/Screen;)V", at = @At("HEAD"))
+    private void onDisconnect(Screen screen, CallbackInfo info) {
+        MaterialPalette.resetClient();
+        MaterialisationUtils.invalidateToolStats();
+    }
+    
+}
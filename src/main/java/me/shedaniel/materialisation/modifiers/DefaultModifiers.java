@@ -31,7 +31,7 @@ public class DefaultModifiers implements DefaultModifiersSupplier {
         HASTE = Modifier.builder()
                 .applicableToolTypes(ImmutableList.copyOf(ToolType.MINING_TOOLS))
                 .maximumLevel(4)
-                .durabilityMultiplier((tool, level) -> {
+                .durabilityMultiplierByLevel(level -> {
                     float multiplier = 1;
                     if (level >= 1) multiplier *= 0.93;
                     if (level >= 2) multiplier *= 0.92;
@@ -39,7 +39,7 @@ public class DefaultModifiers implements DefaultModifiersSupplier {
                     if (level >= 4) multiplier *= 0.9;
                     return multiplier;
                 })
-                .miningSpeedMultiplier((tool, level) -> (level <= 0) ? 1 : 1 + level * 0.5f)
+                .miningSpeedMultiplierByLevel(level -> (level <= 0) ? 1 : 1 + level * 0.5f)
                 .graphicalDescriptionLevelRange(1, 4)
                 .description(level -> {
                     List<Text> textList = new ArrayList<>();
@@ -94,7 +94,7 @@ public class DefaultModifiers implements DefaultModifiersSupplier {
         SHARP = Modifier.builder()
                 .applicableToolTypes(ImmutableList.copyOf(ToolType.WEAPON))
                 .maximumLevel(8)
-                .durabilityMultiplier((tool, level) -> {
+                .durabilityMultiplierByLevel(level -> {
                     float multiplier = 1;
                     if (level >= 1) multiplier *= 0.96;
                     if (level >= 2) multiplier *= 0.96;
@@ -106,7 +106,7 @@ public class DefaultModifiers implements DefaultModifiersSupplier {
                     if (level >= 8) multiplier *= 0.96;
                     return multiplier;
                 })
-                .attackDamageMultiplier((tool, level) -> 1 + level * 0.17f)
+                .attackDamageMultiplierByLevel(level -> 1 + level * 0.17f)
                 .graphicalDescriptionLevelRange(1, 8)
                 .description(level -> {
                     List<Text> textList = new ArrayList<>();
@@ -130,7 +130,7 @@ public class DefaultModifiers implements DefaultModifiersSupplier {
                 .build();
         LUCK = Modifier.builder()
                 .maximumLevel(3)
-                .durabilityMultiplier((tool, level) -> {
+                .durabilityMultiplierByLevel(level -> {
                     float multiplier = 1;
                     if (level >= 1) multiplier *= 0.93;
                     if (level >= 2) multiplier *= 0.92;
@@ -155,8 +155,8 @@ public class DefaultModifiers implements DefaultModifiersSupplier {
         FIRE = Modifier.builder()
                 .applicableToolTypes(ImmutableList.copyOf(ToolType.WEAPON))
                 .maximumLevel(1)
-                .durabilityMultiplier((tool, level) -> level * .93f)
-                .attackDamageMultiplier((tool, level) -> level * .97f)
+                .durabilityMultiplierByLevel(level -> level * .93f)
+                .attackDamageMultiplierByLevel(level -> level * .97f)
                 .graphicalDescriptionLevelRange(1, 1)
                 .description(level -> {
                     List<Text> textList = new ArrayList<>();
@@ -170,7 +170,7 @@ public class DefaultModifiers implements DefaultModifiersSupplier {
         AUTO_SMELT = Modifier.builder()
                 .applicableToolTypes(ImmutableList.copyOf(ToolType.MINING_TOOLS))
                 .maximumLevel(1)
-                .durabilityMultiplier((tool, level) -> level * .93f)
+                .durabilityMultiplierByLevel(level -> level * .93f)
                 .graphicalDescriptionLevelRange(1, 1)
                 .description(level -> {
                     List<Text> textList = new ArrayList<>();
@@ -183,7 +183,7 @@ public class DefaultModifiers implements DefaultModifiersSupplier {
         REINFORCED = Modifier.builder()
                 .applicableToolTypes(ImmutableList.copyOf(ToolType.ALL))
                 .maximumLevel(3)
-                .durabilityMultiplier((tool, level) -> (float) Math.pow(.96f, level))
+                .durabilityMultiplierByLevel(level -> (float) Math.pow(.96f, level))
                 .graphicalDescriptionLevelRange(1, 3)
                 .description(level -> {
                     List<Text> textList = new ArrayList<>();
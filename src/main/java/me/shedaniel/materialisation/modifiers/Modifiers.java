@@ -10,7 +10,6 @@ import net.minecraft.util.Pair;
 import java.util.*;
 
 public class Modifiers {
-    private static final Map<Modifier, List<ModifierIngredient>> MODIFIER_MAP = new HashMap<>();
     
     public static void registerModifiers(ModifierIngredientsHandler handler) {
         for (Object o : FabricLoader.getInstance().getEntrypoints("materialisation_default", Object.class)) {
@@ -26,9 +25,24 @@ public class Modifiers {
         }
     }
     
+    /**
+     * Collects the default ingredients again without registering the modifiers, used by reloads after the first load.
+     */
+    public static void registerDefaultIngredients(ModifierIngredientsHandler handler) {
+        for (Object o : FabricLoader.getInstance().getEntrypoints("materialisation_default", Object.class)) {
+            if (o instanceof DefaultModifiersSupplier) {
+                try {
+                    ((DefaultModifiersSupplier) o).registerIngredients(handler);
+                } catch (Throwable throwable) {
+                    throwable.printStackTrace();
+                }
+            }
+        }
+    }
+    
     public static LevelMap<BetterIngredient> getIngredient(Modifier modifier) {
         LevelMap<BetterIngredient> map = new LevelMap<>();
-        List<ModifierIngredient> list = MODIFIER_MAP.get(modifier);
+        List<ModifierIngredient> list = MaterialisationSnapshot.get().getModifierIngredients(modifier);
         for (ModifierIngredient ingredient : list) {
             map.getBase().addAll(ingredient.getBaseIngredient());
             for (Map.Entry<Integer, List<BetterIngredient>> entry : ingredient.getIngredients().entrySet()) {
@@ -41,48 +55,96 @@ public class Modifiers {
     }
     
     public static void resetMap() {
-        MODIFIER_MAP.clear();
+        MaterialisationSnapshot.update(snapshot -> snapshot.withModifierIngredients(Collections.emptyMap()));
+    }
+    
+    /**
+     * Replaces the ingredients of every modifier at once, modifiers without ingredients get an empty list.
+     */
+    public static void replaceIngredients(Map<Identifier, List<ModifierIngredient>> ingredients) {
+        Map<Modifier, List<ModifierIngredient>> map = resolveIngredients(ingredients);
+        MaterialisationSnapshot.update(snapshot -> snapshot.withModifierIngredients(map));
+    }
+    
+    /**
+     * Resolves the ingredients by modifier identifier for a {@link MaterialisationSnapshot}, without publishing them.
+     */
+    public static Map<Modifier, List<ModifierIngredient>> resolveIngredients(Map<Identifier, List<ModifierIngredient>> ingredients) {
+        Map<Modifier, List<ModifierIngredient>> map = new HashMap<>();
+        for (Map.Entry<Identifier, List<ModifierIngredient>> entry : ingredients.entrySet()) {
+            Optional<Modifier> modifier = Materialisation.MODIFIERS.getOrEmpty(entry.getKey());
+            if (!modifier.isPresent())
+                throw new NullPointerException("Invalid identifier for modifier: " + entry.getKey());
+            map.computeIfAbsent(modifier.get(), m -> new ArrayList<>()).addAll(entry.getValue());
+        }
+        for (Modifier modifier : Materialisation.MODIFIERS)
+            map.putIfAbsent(modifier, new ArrayList<>());
+        return map;
     }
     
     public static boolean containsIngredientForModifier(Identifier identifier) {
         Optional<Modifier> modifier = Materialisation.MODIFIERS.getOrEmpty(identifier);
         if (!modifier.isPresent())
             throw new NullPointerException("Invalid identifier for modifier: " + identifier);
-        return MODIFIER_MAP.containsKey(modifier.get());
+        return MaterialisationSnapshot.get().getModifierIngredients().containsKey(modifier.get());
     }
     
     public static void registerIngredient(Identifier identifier, ModifierIngredient betterIngredient) {
         Optional<Modifier> modifier = Materialisation.MODIFIERS.getOrEmpty(identifier);
         if (!modifier.isPresent())
             throw new NullPointerException("Invalid identifier for modifier: " + identifier);
-        List<ModifierIngredient> list = MODIFIER_MAP.getOrDefault(modifier.get(), new ArrayList<>());
-        list.add(betterIngredient);
-        MODIFIER_MAP.put(modifier.get(), list);
+        MaterialisationSnapshot.registerModifierIngredient(modifier.get(), betterIngredient);
     }
     
     public static void registerIngredients(Identifier identifier, List<ModifierIngredient> betterIngredients) {
-        for (ModifierIngredient ingredient : betterIngredients) registerIngredient(identifier, ingredient);
+        MaterialisationSnapshot.batch(() -> {
+            for (ModifierIngredient ingredient : betterIngredients) registerIngredient(identifier, ingredient);
+        });
     }
     
-    public static void fillEmpty() {
+    public static void compileModifiers() {
         for (Modifier modifier : Materialisation.MODIFIERS) {
-            if (!MODIFIER_MAP.containsKey(modifier)) MODIFIER_MAP.put(modifier, new ArrayList<>());
+            if (modifier instanceof Modifier.ModifierImpl) ((Modifier.ModifierImpl) modifier).compile();
         }
     }
     
+    public static void fillEmpty() {
+        MaterialisationSnapshot.update(snapshot -> {
+            Map<Modifier, List<ModifierIngredient>> map = new HashMap<>(snapshot.getModifierIngredients());
+            for (Modifier modifier : Materialisation.MODIFIERS) {
+                if (!map.containsKey(modifier)) map.put(modifier, new ArrayList<>());
+            }
+            return snapshot.withModifierIngredients(map);
+        });
+    }
+    
     public static boolean isIngredient(ItemStack itemStack, Modifier modifier, int level) {
         return getModifierByIngredient(itemStack, modifier, level).isPresent();
     }
     
     public static Optional<Pair<Modifier, Pair<ModifierIngredient, BetterIngredient>>> getModifierByIngredient(ItemStack itemStack, Modifier modifier, int level) {
-        List<ModifierIngredient> ingredientList = MODIFIER_MAP.get(modifier);
-        for (ModifierIngredient ingredient : ingredientList) {
-            for (BetterIngredient betterIngredient : ingredient.getIngredient(level)) {
-                if (betterIngredient.isIncluded(itemStack)) {
-                    return Optional.of(new Pair<>(modifier, new Pair<>(ingredient, betterIngredient)));
-                }
+        if (itemStack == null)
+            return Optional.empty();
+        for (ModifierIngredientIndex.Entry entry : MaterialisationSnapshot.get().getIngredientIndex().get(itemStack.getItem())) {
+            if (entry.getModifier() == modifier && entry.appliesTo(level) && entry.getCount() <= itemStack.getCount()) {
+                return Optional.of(new Pair<>(modifier, new Pair<>(entry.getIngredient(), entry.getBetterIngredient())));
+            }
+        }
+        return Optional.empty();
+    }
+    
+    /**
+     * Finds the first modifier, in registry order, that the item upgrades the tool with by one level.
+     */
+    public static Optional<Pair<Modifier, Pair<ModifierIngredient, BetterIngredient>>> getUpgradeByIngredient(ItemStack tool, ModifierLevels modifierLevels, ItemStack itemStack) {
+        for (ModifierIngredientIndex.Entry entry : MaterialisationSnapshot.get().getIngredientIndex().get(itemStack.getItem())) {
+            Modifier modifier = entry.getModifier();
+            int currentLevel = modifierLevels.getLevel(modifier);
+            if (entry.getCount() <= itemStack.getCount() && entry.appliesTo(currentLevel + 1)
+                && modifier.isApplicableTo(tool) && modifier.getMaximumLevel(tool) > currentLevel) {
+                return Optional.of(new Pair<>(modifier, new Pair<>(entry.getIngredient(), entry.getBetterIngredient())));
             }
         }
         return Optional.empty();
     }
-}
+}
\ No newline at end of file
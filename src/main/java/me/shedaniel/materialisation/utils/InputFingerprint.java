@@ -0,0 +1,84 @@
+package me.shedaniel.materialisation.utils;
+
+import net.minecraft.item.Item;
+import net.minecraft.item.ItemStack;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.tag.ItemTags;
+import net.minecraft.tag.TagContainer;
+
+import javax.annotation.Nullable;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * A cheap summary of the inputs of a container, so its result is only computed again when an input actually changed.
+ * <p>
+ * Stacks are summarised by item, count, the identity of their tag and the hash of its content, so nothing is copied. The
+ * generation of the materials snapshot and the item tags are part of the fingerprint, so results are computed again
+ * after a reload.
+ */
+public final class InputFingerprint {
+    
+    private final int generation;
+    private final TagContainer<Item> itemTags;
+    @Nullable
+    private final String name;
+    private final Item[] items;
+    private final int[] counts;
+    private final CompoundTag[] tags;
+    private final int[] tagHashes;
+    
+    private InputFingerprint(int generation, TagContainer<Item> itemTags, @Nullable String name, Item[] items, int[] counts, CompoundTag[] tags, int[] tagHashes) {
+        this.generation = generation;
+        this.itemTags = itemTags;
+        this.name = name;
+        this.items = items;
+        this.counts = counts;
+        this.tags = tags;
+        this.tagHashes = tagHashes;
+    }
+    
+    /**
+     * @param name the pending rename of the result, or null if the container has none
+     */
+    public static InputFingerprint of(int generation, @Nullable String name, ItemStack... stacks) {
+        Item[] items = new Item[stacks.length];
+        int[] counts = new int[stacks.length];
+        CompoundTag[] tags = new CompoundTag[stacks.length];
+        int[] tagHashes = new int[stacks.length];
+        for (int i = 0; i < stacks.length; i++) {
+            ItemStack stack = stacks[i];
+            items[i] = stack.getItem();
+            counts[i] = stack.getCount();
+            tags[i] = stack.getTag();
+            tagHashes[i] = tags[i] == null ? 0 : tags[i].hashCode();
+        }
+        return new InputFingerprint(generation, ItemTags.getContainer(), name, items, counts, tags, tagHashes);
+    }
+    
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj)
+            return true;
+        if (!(obj instanceof InputFingerprint))
+            return false;
+        InputFingerprint other = (InputFingerprint) obj;
+        if (generation != other.generation || itemTags != other.itemTags || !Objects.equals(name, other.name)
+            || !Arrays.equals(items, other.items) || !Arrays.equals(counts, other.counts) || !Arrays.equals(tagHashes, other.tagHashes))
+            return false;
+        // Tags written in place keep their identity but change their hash, other tags are a different instance
+        for (int i = 0; i < tags.length; i++)
+            if (tags[i] != other.tags[i])
+                return false;
+        return true;
+    }
+    
+    @Override
+    public int hashCode() {
+        int result = Objects.hash(generation, System.identityHashCode(itemTags), name);
+        result = 31 * result + Arrays.hashCode(items);
+        result = 31 * result + Arrays.hashCode(counts);
+        return 31 * result + Arrays.hashCode(tagHashes);
+    }
+    
+}
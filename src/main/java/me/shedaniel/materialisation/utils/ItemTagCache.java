@@ -0,0 +1,75 @@
+package me.shedaniel.materialisation.utils;
+
+import com.google.common.collect.ImmutableList;
+import net.minecraft.item.Item;
+import net.minecraft.tag.ItemTags;
+import net.minecraft.tag.Tag;
+import net.minecraft.tag.TagContainer;
+import net.minecraft.util.Identifier;
+import net.minecraft.util.registry.Registry;
+
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Resolves item tags once per tag container, tags are resolved again after a datapack reload or a world switch.
+ * <p>
+ * Membership is stored as a bitset of raw item ids, so checking an item is a single bit test.
+ */
+public final class ItemTagCache {
+    
+    private static volatile Resolved resolved = new Resolved(null);
+    
+    private ItemTagCache() {
+    }
+    
+    private static Resolved getResolved() {
+        TagContainer<Item> tags = ItemTags.getContainer();
+        Resolved resolved = ItemTagCache.resolved;
+        if (resolved.tags != tags)
+            ItemTagCache.resolved = resolved = new Resolved(tags);
+        return resolved;
+    }
+    
+    public static boolean contains(Identifier tag, Item item) {
+        int rawId = Registry.ITEM.getRawId(item);
+        return rawId >= 0 && getResolved().get(tag).bits.get(rawId);
+    }
+    
+    /**
+     * @return the items of the tag, the same list instance until the tags reload, empty for unknown tags
+     */
+    public static List<Item> getItems(Identifier tag) {
+        return getResolved().get(tag).items;
+    }
+    
+    private static final class Resolved {
+        private final TagContainer<Item> tags;
+        private final ConcurrentMap<Identifier, Entry> entries = new ConcurrentHashMap<>();
+        
+        private Resolved(TagContainer<Item> tags) {
+            this.tags = tags;
+        }
+        
+        private Entry get(Identifier identifier) {
+            return entries.computeIfAbsent(identifier, id -> {
+                Tag<Item> tag = tags == null ? null : tags.get(id);
+                return new Entry(tag == null ? ImmutableList.of() : ImmutableList.copyOf(tag.values()));
+            });
+        }
+    }
+    
+    private static final class Entry {
+        private final List<Item> items;
+        private final BitSet bits = new BitSet();
+        
+        private Entry(List<Item> items) {
+            this.items = items;
+            for (Item item : items)
+                bits.set(Registry.ITEM.getRawId(item));
+        }
+    }
+    
+}
@@ -0,0 +1,50 @@
+package me.shedaniel.materialisation.utils;
+
+import me.shedaniel.materialisation.api.PartMaterial;
+
+import javax.annotation.Nullable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Caches materials by the string they were parsed from, safe to use from any thread.
+ * <p>
+ * Every entry remembers the snapshot generation it was resolved against, entries from an older generation are treated
+ * as missing, so reloads never have to clear the cache while other threads read it.
+ */
+public final class MaterialCache {
+    
+    private final ConcurrentMap<String, Entry> entries = new ConcurrentHashMap<>();
+    
+    @Nullable
+    public PartMaterial get(String key, int generation) {
+        Entry entry = entries.get(key);
+        if (entry == null)
+            return null;
+        if (entry.generation != generation) {
+            entries.remove(key, entry);
+            return null;
+        }
+        return entry.material;
+    }
+    
+    public PartMaterial put(String key, int generation, PartMaterial material) {
+        entries.put(key, new Entry(generation, material));
+        return material;
+    }
+    
+    public void clear() {
+        entries.clear();
+    }
+    
+    private static final class Entry {
+        private final int generation;
+        private final PartMaterial material;
+        
+        private Entry(int generation, PartMaterial material) {
+            this.generation = generation;
+            this.material = material;
+        }
+    }
+    
+}
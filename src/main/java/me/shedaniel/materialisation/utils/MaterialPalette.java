@@ -0,0 +1,244 @@
+package me.shedaniel.materialisation.utils;
+
+import io.netty.buffer.Unpooled;
+import it.unimi.dsi.fastutil.objects.Object2IntMap;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+import me.shedaniel.materialisation.Materialisation;
+import me.shedaniel.materialisation.MaterialisationUtils;
+import me.shedaniel.materialisation.ModReference;
+import me.shedaniel.materialisation.api.MaterialisationSnapshot;
+import me.shedaniel.materialisation.api.PartMaterial;
+import net.fabricmc.fabric.api.network.ServerSidePacketRegistry;
+import net.minecraft.entity.player.PlayerEntity;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.nbt.ListTag;
+import net.minecraft.nbt.StringTag;
+import net.minecraft.network.PacketByteBuf;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.util.Identifier;
+import net.minecraft.world.PersistentState;
+import net.minecraft.world.dimension.DimensionType;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Maps material identifiers to small integers for a world, so tools can keep a packed int array of their materials
+ * instead of their string keys.
+ * <p>
+ * The ids are only meaningful together with the palette's stamp, which is stored as the first element of the array.
+ * Ids are only created on the server thread, which owns the palette's saved state and the connections it syncs to.
+ */
+public class MaterialPalette extends PersistentState {
+    
+    public static final String KEY = ModReference.MOD_ID + "_palette";
+    @Nullable
+    private static volatile MaterialPalette serverPalette;
+    @Nullable
+    private static volatile MaterialPalette clientPalette;
+    private final List<Identifier> identifiers = new ArrayList<>();
+    private final Object2IntMap<Identifier> ids = new Object2IntOpenHashMap<>();
+    private int stamp;
+    private volatile Resolved resolved = new Resolved(-1, new PartMaterial[0]);
+    @Nullable
+    private MinecraftServer server;
+    
+    public MaterialPalette() {
+        this(new Random().nextInt());
+    }
+    
+    public MaterialPalette(int stamp) {
+        super(KEY);
+        this.stamp = stamp;
+        this.ids.defaultReturnValue(-1);
+    }
+    
+    public static void load(MinecraftServer server) {
+        MaterialPalette palette = server.getWorld(DimensionType.OVERWORLD).getPersistentStateManager().getOrCreate(MaterialPalette::new, KEY);
+        palette.server = server;
+        serverPalette = palette;
+        MaterialisationUtils.invalidateToolStats();
+    }
+    
+    public static void unload() {
+        serverPalette = null;
+        MaterialisationUtils.invalidateToolStats();
+    }
+    
+    /**
+     * @return the palette of the running server, only this palette may be used to encode new materials
+     */
+    @Nullable
+    public static MaterialPalette getServerPalette() {
+        return serverPalette;
+    }
+    
+    /**
+     * @return the palette of the running server if called on its thread, otherwise {@code null}
+     */
+    @Nullable
+    public static MaterialPalette getWritable() {
+        MaterialPalette palette = serverPalette;
+        return palette != null && palette.server != null && palette.server.isOnThread() ? palette : null;
+    }
+    
+    /**
+     * @return the palette to decode materials with, the integrated server shares its palette with the client
+     */
+    @Nullable
+    public static MaterialPalette getActive() {
+        MaterialPalette palette = serverPalette;
+        return palette != null ? palette : clientPalette;
+    }
+    
+    /**
+     * Forgets the palette of the server the client was connected to, called when the client leaves a world.
+     */
+    public static void resetClient() {
+        clientPalette = null;
+    }
+    
+    /**
+     * Must be called on the client thread, the same thread that decodes tools with the client palette.
+     */
+    public static void readSync(PacketByteBuf buf) {
+        int stamp = buf.readInt();
+        int start = buf.readVarInt();
+        int size = buf.readVarInt();
+        List<Identifier> identifiers = new ArrayList<>(size);
+        for (int i = 0; i < size; i++)
+            identifiers.add(buf.readIdentifier());
+        MaterialPalette palette = clientPalette;
+        if (start == 0 || palette == null || palette.stamp != stamp)
+            clientPalette = palette = new MaterialPalette(stamp);
+        synchronized (palette) {
+            for (int i = 0; i < identifiers.size(); i++)
+                if (start + i == palette.identifiers.size())
+                    palette.append(identifiers.get(i));
+        }
+    }
+    
+    public int getStamp() {
+        return stamp;
+    }
+    
+    public int getId(Identifier identifier) {
+        synchronized (this) {
+            return ids.getInt(identifier);
+        }
+    }
+    
+    @Nullable
+    public Identifier getIdentifier(int id) {
+        synchronized (this) {
+            return id >= 0 && id < identifiers.size() ? identifiers.get(id) : null;
+        }
+    }
+    
+    public int getOrCreateId(Identifier identifier) {
+        int id;
+        synchronized (this) {
+            id = ids.getInt(identifier);
+            if (id >= 0)
+                return id;
+            id = append(identifier);
+        }
+        markDirty();
+        MinecraftServer server = this.server;
+        if (server != null) {
+            // Ids are created in the middle of writing a tool, the new id is sent once the current task is done
+            int created = id;
+            server.execute(() -> {
+                for (PlayerEntity player : server.getPlayerManager().getPlayerList())
+                    send(player, created, 1);
+            });
+        }
+        return id;
+    }
+    
+    @Nullable
+    public PartMaterial getMaterial(int stamp, int id) {
+        return getMaterial(stamp, id, MaterialisationSnapshot.get());
+    }
+    
+    /**
+     * Like {@link #getMaterial(int, int)}, but resolved against the given snapshot.
+     */
+    @Nullable
+    public PartMaterial getMaterial(int stamp, int id, MaterialisationSnapshot snapshot) {
+        if (stamp != this.stamp || id < 0)
+            return null;
+        Resolved resolved = this.resolved;
+        if (resolved.generation != snapshot.getGeneration() || id >= resolved.materials.length)
+            resolved = resolve(snapshot);
+        return id < resolved.materials.length ? resolved.materials[id] : null;
+    }
+    
+    public void sendTo(PlayerEntity player) {
+        int size;
+        synchronized (this) {
+            size = identifiers.size();
+        }
+        send(player, 0, size);
+    }
+    
+    private void send(PlayerEntity player, int start, int size) {
+        PacketByteBuf buf = new PacketByteBuf(Unpooled.buffer());
+        buf.writeInt(stamp);
+        buf.writeVarInt(start);
+        buf.writeVarInt(size);
+        synchronized (this) {
+            for (int i = start; i < start + size; i++)
+                buf.writeIdentifier(identifiers.get(i));
+        }
+        ServerSidePacketRegistry.INSTANCE.sendToPlayer(player, Materialisation.MATERIAL_PALETTE_SYNC, buf);
+    }
+    
+    private int append(Identifier identifier) {
+        int id = identifiers.size();
+        identifiers.add(identifier);
+        ids.put(identifier, id);
+        return id;
+    }
+    
+    private synchronized Resolved resolve(MaterialisationSnapshot snapshot) {
+        PartMaterial[] materials = new PartMaterial[identifiers.size()];
+        for (int i = 0; i < materials.length; i++)
+            materials[i] = snapshot.getMaterial(identifiers.get(i));
+        return resolved = new Resolved(snapshot.getGeneration(), materials);
+    }
+    
+    @Override
+    public synchronized void fromTag(CompoundTag tag) {
+        stamp = tag.getInt("stamp");
+        identifiers.clear();
+        ids.clear();
+        ListTag list = tag.getList("materials", 8);
+        for (int i = 0; i < list.size(); i++)
+            append(new Identifier(list.getString(i)));
+        resolved = new Resolved(-1, new PartMaterial[0]);
+    }
+    
+    @Override
+    public synchronized CompoundTag toTag(CompoundTag tag) {
+        tag.putInt("stamp", stamp);
+        ListTag list = new ListTag();
+        for (Identifier identifier : identifiers)
+            list.add(StringTag.of(identifier.toString()));
+        tag.put("materials", list);
+        return tag;
+    }
+    
+    private static final class Resolved {
+        private final int generation;
+        private final PartMaterial[] materials;
+        
+        private Resolved(int generation, PartMaterial[] materials) {
+            this.generation = generation;
+            this.materials = materials;
+        }
+    }
+    
+}
@@ -0,0 +1,83 @@
+package me.shedaniel.materialisation.utils;
+
+import com.google.common.annotations.VisibleForTesting;
+import me.shedaniel.materialisation.api.ToolStats;
+import net.minecraft.item.ItemStack;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.nbt.Tag;
+
+import javax.annotation.Nullable;
+import java.util.function.Function;
+
+/**
+ * The tool stats last computed for an item stack, valid for as long as the stack keeps its tag and the parts of the tag
+ * the stats are computed from.
+ * <p>
+ * Writing a key replaces its tag, so the parts are compared by identity. Compounds can be written to in place, the
+ * modifiers compound is compared by size as well and writers of this mod clear the slot with {@link #invalidate(ItemStack)}.
+ */
+public final class ToolStatsSlot {
+    
+    private static Function<ItemStack, Holder> holders = stack -> (Holder) (Object) stack;
+    private final int generation;
+    private final CompoundTag tag;
+    @Nullable
+    private final Tag handle, head, materials, modifiers, durability;
+    private final int modifiersSize;
+    private final ToolStats stats;
+    
+    public ToolStatsSlot(int generation, CompoundTag tag, ToolStats stats) {
+        this.generation = generation;
+        this.tag = tag;
+        this.handle = tag.get("mt_0_material");
+        this.head = tag.get("mt_1_material");
+        this.materials = tag.get("mt_materials");
+        this.modifiers = tag.get("modifiers");
+        this.durability = tag.get("mt_durability");
+        this.modifiersSize = getSize(modifiers);
+        this.stats = stats;
+    }
+    
+    private static int getSize(@Nullable Tag tag) {
+        return tag instanceof CompoundTag ? ((CompoundTag) tag).getSize() : 0;
+    }
+    
+    public static Holder getHolder(ItemStack stack) {
+        return holders.apply(stack);
+    }
+    
+    /**
+     * Replaces how stacks find their slot, for benchmarks that run without mixins applied to {@link ItemStack}.
+     */
+    @VisibleForTesting
+    public static void setHolders(Function<ItemStack, Holder> holders) {
+        ToolStatsSlot.holders = holders;
+    }
+    
+    public static void invalidate(ItemStack stack) {
+        getHolder(stack).materialisation_setToolStatsSlot(null);
+    }
+    
+    public boolean isValid(int generation, CompoundTag tag) {
+        if (this.generation != generation || this.tag != tag)
+            return false;
+        Tag modifiers = tag.get("modifiers");
+        return handle == tag.get("mt_0_material") && head == tag.get("mt_1_material") && materials == tag.get("mt_materials")
+               && durability == tag.get("mt_durability") && this.modifiers == modifiers && modifiersSize == getSize(modifiers);
+    }
+    
+    public ToolStats getStats() {
+        return stats;
+    }
+    
+    /**
+     * Implemented on {@link net.minecraft.item.ItemStack} to hold its slot.
+     */
+    public interface Holder {
+        @Nullable
+        ToolStatsSlot materialisation_getToolStatsSlot();
+        
+        void materialisation_setToolStatsSlot(@Nullable ToolStatsSlot slot);
+    }
+    
+}